@@ -11,9 +11,16 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import rocks.process.pizza.model.OrderRequest;
 import rocks.process.pizza.model.OrderResponse;
+import rocks.process.pizza.model.OrderStatisticsResponse;
 
 import javax.validation.Valid;
 import javax.ws.rs.*;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
 import java.util.List;
 
 /**
@@ -27,13 +34,22 @@ public interface DefaultApi {
 
     @POST
     @Path("/orders")
-    @Consumes({"application/json"})
-    @Produces({"application/json"})
+    @Consumes({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
     @ApiOperation(value = "", tags = {})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "OK", response = OrderResponse.class)})
     public OrderResponse createOrder(@Valid OrderRequest orderrequest);
 
+    @POST
+    @Path("/orders/batch")
+    @Consumes({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class, responseContainer = "List")})
+    public List<OrderResponse> createOrders(@Valid List<OrderRequest> orderrequests);
+
     @DELETE
     @Path("/orders/{orderId}")
     @ApiOperation(value = "", tags = {})
@@ -41,29 +57,84 @@ public interface DefaultApi {
             @ApiResponse(code = 200, message = "OK")})
     public void deleteOrder(@PathParam("orderId") String orderId);
 
+    @DELETE
+    @Path("/orders")
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = Integer.class),
+            @ApiResponse(code = 400, message = "Bad Request")})
+    public Integer deleteOrders(@QueryParam("orderId") List<String> orderIds, @QueryParam("pizza") String pizza, @QueryParam("curst") String curst);
+
     @GET
     @Path("/orders")
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 304, message = "Not Modified")})
+    public Response findOrders(@QueryParam("pizza") String pizza, @QueryParam("curst") String curst, @QueryParam("after") Long after, @QueryParam("limit") Integer limit, @Context Request request);
+
+    @GET
+    @Path("/orders/search")
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class, responseContainer = "List"),
+            @ApiResponse(code = 400, message = "Bad Request")})
+    public Response searchOrders(@QueryParam("q") String q, @QueryParam("after") Long after, @QueryParam("limit") Integer limit);
+
+    @GET
+    @Path("/orders/stream")
     @Produces({"application/json"})
     @ApiOperation(value = "", tags = {})
     @ApiResponses(value = {
             @ApiResponse(code = 200, message = "OK", response = OrderResponse.class, responseContainer = "List")})
-    public List<OrderResponse> findOrders(@QueryParam("pizza") String pizza, @QueryParam("curst") String curst);
+    public StreamingOutput streamOrders(@QueryParam("pizza") String pizza, @QueryParam("curst") String curst);
+
+    @GET
+    @Path("/orders/changes")
+    @Produces({"text/event-stream"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK")})
+    public void streamOrderChanges(@HeaderParam("Last-Event-ID") String lastEventId, @Context SseEventSink sseEventSink, @Context Sse sse);
+
+    @GET
+    @Path("/orders/stats")
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK", response = OrderStatisticsResponse.class)})
+    public OrderStatisticsResponse readOrderStatistics();
 
     @GET
     @Path("/orders/{orderId}")
-    @Produces({"application/json"})
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
     @ApiOperation(value = "", tags = {})
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class)})
-    public OrderResponse readOrder(@PathParam("orderId") String orderId);
+            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class),
+            @ApiResponse(code = 304, message = "Not Modified")})
+    public Response readOrder(@PathParam("orderId") String orderId, @Context Request request);
 
     @PUT
     @Path("/orders/{orderId}")
-    @Consumes({"application/json"})
-    @Produces({"application/json"})
+    @Consumes({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
     @ApiOperation(value = "", tags = {})
     @ApiResponses(value = {
-            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class)})
-    public OrderResponse updateOrder(@PathParam("orderId") String orderId, @Valid OrderRequest orderrequest);
+            @ApiResponse(code = 200, message = "OK", response = OrderResponse.class),
+            @ApiResponse(code = 404, message = "Not Found"),
+            @ApiResponse(code = 412, message = "Precondition Failed")})
+    public Response updateOrder(@PathParam("orderId") String orderId, @HeaderParam("If-Match") String ifMatch, @Valid OrderRequest orderrequest, @Context Request request);
+
+    @PATCH
+    @Path("/orders/{orderId}")
+    @Consumes({"application/json", "application/cbor", "application/x-jackson-smile"})
+    @ApiOperation(value = "", tags = {})
+    @ApiResponses(value = {
+            @ApiResponse(code = 204, message = "No Content"),
+            @ApiResponse(code = 404, message = "Not Found")})
+    public void patchOrder(@PathParam("orderId") String orderId, @Valid OrderRequest orderrequest);
 }
 
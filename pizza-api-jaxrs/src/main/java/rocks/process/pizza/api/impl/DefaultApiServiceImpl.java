@@ -5,16 +5,44 @@
 
 package rocks.process.pizza.api.impl;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.api.mapper.OrderMapper;
+import rocks.process.pizza.api.provider.ContentEncodingInterceptor;
+import rocks.process.pizza.api.provider.OrderJsonWriter;
+import rocks.process.pizza.business.event.OrderChangeEvent;
+import rocks.process.pizza.business.event.OrderChangeFeed;
 import rocks.process.pizza.business.service.PizzaService;
 import rocks.process.pizza.data.domain.Order;
 import rocks.process.pizza.model.OrderRequest;
 import rocks.process.pizza.model.OrderResponse;
+import rocks.process.pizza.model.OrderStatisticsResponse;
 
-import java.util.ArrayList;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.GenericEntity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -25,56 +53,187 @@ import java.util.List;
 @Component
 public class DefaultApiServiceImpl implements DefaultApi {
 
+    /**
+     * The representations of an order (list); their entity tags differ.
+     */
+    private static final List<Variant> VARIANTS = Variant.mediaTypes(MediaType.APPLICATION_JSON_TYPE,
+            MediaType.valueOf("application/cbor"), MediaType.valueOf("application/x-jackson-smile"))
+            .encodings(ContentEncodingInterceptor.ENCODINGS).add().build();
+
     @Autowired
     private PizzaService pizzaService;
 
+    @Autowired
+    private OrderMapper orderMapper;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    @Timed("pizza.api")
     public OrderResponse createOrder(OrderRequest orderrequest) {
         Order order = pizzaService.createOrderWithPizzaAndCrust(orderrequest.getPizza(), orderrequest.getCrust());
-        OrderResponse orderResponse = new OrderResponse();
-        orderResponse.setPizza(order.getPizza());
-        orderResponse.setCrust(order.getCrust());
-        orderResponse.setOrderId(order.getOrderId().toString());
-        return orderResponse;
+        return orderMapper.toOrderResponse(order);
+    }
+
+    @Timed("pizza.api")
+    public List<OrderResponse> createOrders(List<OrderRequest> orderrequests) {
+        return orderMapper.toOrderResponses(pizzaService.createOrders(orderMapper.toOrders(orderrequests)));
     }
 
+    @Timed("pizza.api")
     public void deleteOrder(String orderId) {
         pizzaService.deleteOrderById(orderId);
     }
 
-    public List<OrderResponse> findOrders(String pizza, String curst) {
-        List<Order> orders = pizzaService.findOrdersByPizzaOrCurst(pizza, curst);
-        List<OrderResponse> orderResponseList = new ArrayList<>();
-        OrderResponse orderResponse = null;
-        for (Order order : orders) {
-            orderResponse = new OrderResponse();
-            orderResponse.setPizza(order.getPizza());
-            orderResponse.setCrust(order.getCrust());
-            orderResponse.setOrderId(order.getOrderId().toString());
-            orderResponseList.add(orderResponse);
-        }
-        return orderResponseList;
+    @Timed("pizza.api")
+    public Integer deleteOrders(List<String> orderIds, String pizza, String curst) {
+        if (orderIds != null && !orderIds.isEmpty())
+            return pizzaService.deleteOrdersByIds(orderIds);
+        if ((pizza == null || "".equals(pizza)) && (curst == null || "".equals(curst)))
+            throw new BadRequestException("Either orderId, pizza or curst is required.");
+        return pizzaService.deleteOrdersByPizzaOrCurst(pizza, curst);
     }
 
-    public OrderResponse readOrder(String orderId) {
+    @Timed("pizza.api")
+    public Response findOrders(String pizza, String curst, Long after, Integer limit, Request request) {
+        List<Order> orders = after == null && limit == null ?
+                pizzaService.findOrdersByPizzaOrCurst(pizza, curst) :
+                pizzaService.findOrdersByPizzaOrCurst(pizza, curst, after, limit);
+        EntityTag entityTag = OrderEntityTags.of(orders, request.selectVariant(VARIANTS));
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null)
+            return notModified.build();
+        return Response.ok(new GenericEntity<List<Order>>(orders) {}).tag(entityTag).build();
+    }
+
+    /**
+     * A page of the orders whose pizza or crust matches the query by prefix or similarity; the last orderId of a page
+     * is the cursor ({@code after}) for the next one.
+     */
+    @Timed("pizza.api")
+    public Response searchOrders(String q, Long after, Integer limit) {
+        if (q == null || q.trim().isEmpty())
+            throw new BadRequestException("q is required.");
+        return Response.ok(new GenericEntity<List<Order>>(pizzaService.searchOrders(q, after, limit)) {}).build();
+    }
+
+    /**
+     * The orders are queried and written only once the container writes the returned output, so instead of
+     * {@link Timed}, which would end with this method, a sample is recorded to the pizza.api timer of this method
+     * when the output has been written.
+     */
+    public StreamingOutput streamOrders(String pizza, String curst) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return outputStream -> {
+            String exception = "none";
+            try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+                OrderJsonWriter orderWriter = new OrderJsonWriter(generator);
+                generator.writeStartArray();
+                pizzaService.streamOrdersByPizzaOrCurst(pizza, curst, order -> {
+                    try {
+                        orderWriter.write(order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            } catch (UncheckedIOException e) {
+                exception = e.getCause().getClass().getSimpleName();
+                throw e.getCause();
+            } catch (IOException | RuntimeException e) {
+                exception = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(meterRegistry.timer("pizza.api", "class", DefaultApiServiceImpl.class.getName(),
+                        "method", "streamOrders", "exception", exception));
+            }
+        };
+    }
+
+    /**
+     * Sends each committed change as an event named created, updated, deleted or reset, with the order as data. The
+     * events are queued on the sink and written by the container, so an idle subscriber holds no thread. A subscriber
+     * whose connection has failed is dropped with the next change. Not timed, as the method returns once the
+     * subscriber is registered; {@code pizza.changes.subscribers} gauges the open streams instead.
+     */
+    public void streamOrderChanges(String lastEventId, SseEventSink sseEventSink, Sse sse) {
+        AtomicBoolean failed = new AtomicBoolean();
+        orderChangeFeed.subscribe(lastEventId, change -> {
+            if (failed.get() || sseEventSink.isClosed())
+                return false;
+            sseEventSink.send(toSseEvent(change, sse)).whenComplete((result, e) -> {
+                if (e != null)
+                    failed.set(true);
+            });
+            return true;
+        });
+    }
+
+    private OutboundSseEvent toSseEvent(OrderChangeEvent change, Sse sse) {
+        Order order = new Order(change.getPizza(), change.getCrust());
+        order.setOrderId(change.getOrderId());
+        return sse.newEventBuilder()
+                .id(change.getId())
+                .name(change.getType().name().toLowerCase(Locale.ROOT))
+                .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                .data(OrderResponse.class, orderMapper.toOrderResponse(order))
+                .build();
+    }
+
+    @Timed("pizza.api")
+    public OrderStatisticsResponse readOrderStatistics() {
+        return orderMapper.toOrderStatisticsResponse(pizzaService.getOrderStatistics());
+    }
+
+    @Timed("pizza.api")
+    public Response readOrder(String orderId, Request request) {
         Order order = pizzaService.readOrderById(orderId);
-        if(order!=null) {
-            OrderResponse orderResponse = new OrderResponse();
-            orderResponse.setPizza(order.getPizza());
-            orderResponse.setCrust(order.getCrust());
-            orderResponse.setOrderId(order.getOrderId().toString());
-            return orderResponse;
+        if (order == null)
+            return Response.noContent().build();
+        EntityTag entityTag = OrderEntityTags.of(order, request.selectVariant(VARIANTS));
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(entityTag);
+        if (notModified != null)
+            return notModified.build();
+        return Response.ok(orderMapper.toOrderResponse(order)).tag(entityTag).build();
+    }
+
+    /**
+     * With an {@code If-Match} header the order is only updated if it still has the tagged version; otherwise (or if
+     * the tag does not belong to this order) the answer is 412 Precondition Failed.
+     */
+    @Timed("pizza.api")
+    public Response updateOrder(String orderId, String ifMatch, OrderRequest orderrequest, Request request) {
+        Long version;
+        Order order;
+        try {
+            version = ifMatch == null ? null : OrderEntityTags.version(orderId, ifMatch);
+        } catch (IllegalArgumentException e) {
+            throw new ClientErrorException(Response.Status.PRECONDITION_FAILED);
+        }
+        try {
+            order = pizzaService.updateOrderByIdWithPizzaAndCrust(orderId, version, orderrequest.getPizza(), orderrequest.getCrust());
+        } catch (OptimisticLockingFailureException e) {
+            throw new ClientErrorException(Response.Status.PRECONDITION_FAILED);
         }
-        return null;
+        if (order == null && ifMatch != null)
+            throw new ClientErrorException(Response.Status.PRECONDITION_FAILED);
+        if (order == null)
+            throw new NotFoundException();
+        Response.ResponseBuilder response = Response.ok(orderMapper.toOrderResponse(order));
+        if (order.getVersion() != null)
+            response.tag(OrderEntityTags.of(order, request.selectVariant(VARIANTS)));
+        return response.build();
     }
 
-    public OrderResponse updateOrder(String orderId, OrderRequest orderrequest) {
-        Order order = pizzaService.updateOrderByIdWithPizzaAndCrust(orderId, orderrequest.getPizza(), orderrequest.getCrust());
-        OrderResponse orderResponse = new OrderResponse();
-        orderResponse.setPizza(order.getPizza());
-        orderResponse.setCrust(order.getCrust());
-        orderResponse.setOrderId(order.getOrderId().toString());
-        return orderResponse;
+    @Timed("pizza.api")
+    public void patchOrder(String orderId, OrderRequest orderrequest) {
+        if (!pizzaService.patchOrderById(orderId, orderrequest.getPizza(), orderrequest.getCrust()))
+            throw new NotFoundException();
     }
 
 }
-
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.impl;
+
+import rocks.process.pizza.data.domain.Order;
+
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Variant;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Strong entity tags derived from the order versions, so they can be computed (and compared) before anything is
+ * serialized. A single order is tagged {@code "<orderId>.<version>"}; a list of orders with a digest of the ids and
+ * versions of its elements. Representations other than identity-encoded JSON get the media subtype and encoding
+ * appended (e.g. {@code "1.0+cbor+gzip"}), so each representation keeps a distinct strong tag.
+ */
+final class OrderEntityTags {
+
+    private OrderEntityTags() {
+    }
+
+    static EntityTag of(Order order, Variant variant) {
+        return new EntityTag(order.getOrderId() + "." + order.getVersion() + suffix(variant));
+    }
+
+    static EntityTag of(List<Order> orders, Variant variant) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (Order order : orders) {
+            buffer.clear();
+            buffer.putLong(order.getOrderId()).putLong(order.getVersion() == null ? -1 : order.getVersion());
+            digest.update(buffer.array());
+        }
+        return new EntityTag(Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest.digest(), 16)) + suffix(variant));
+    }
+
+    /**
+     * Extracts the expected version from an {@code If-Match} header sent for the given order.
+     *
+     * @return the version, or null for {@code *}
+     * @throws IllegalArgumentException if the header is not a single strong tag of this order
+     */
+    static Long version(String orderId, String ifMatch) {
+        String value = ifMatch.trim();
+        if ("*".equals(value))
+            return null;
+        String prefix = "\"" + orderId + ".";
+        if (!value.startsWith(prefix) || !value.endsWith("\"") || value.length() <= prefix.length() + 1)
+            throw new IllegalArgumentException("Not a tag of order " + orderId + ": " + ifMatch);
+        String version = value.substring(prefix.length(), value.length() - 1);
+        return Long.parseLong(version.indexOf('+') < 0 ? version : version.substring(0, version.indexOf('+')));
+    }
+
+    private static String suffix(Variant variant) {
+        if (variant == null)
+            return "";
+        String suffix = "";
+        if (variant.getMediaType() != null && !MediaType.APPLICATION_JSON_TYPE.isCompatible(variant.getMediaType()))
+            suffix += "+" + variant.getMediaType().getSubtype();
+        if (variant.getEncoding() != null && !"identity".equals(variant.getEncoding()))
+            suffix += "+" + variant.getEncoding();
+        return suffix;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import rocks.process.pizza.business.service.OrderStatistics;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.domain.OrderCount;
+import rocks.process.pizza.model.OrderCountResponse;
+import rocks.process.pizza.model.OrderRequest;
+import rocks.process.pizza.model.OrderResponse;
+import rocks.process.pizza.model.OrderStatisticsResponse;
+
+import java.util.List;
+
+/**
+ * Maps between the business entities and the REST models. The implementation is generated by MapStruct at compile
+ * time; a null source is mapped to null.
+ */
+@Mapper(componentModel = "spring")
+public interface OrderMapper {
+
+    OrderResponse toOrderResponse(Order order);
+
+    List<OrderResponse> toOrderResponses(List<Order> orders);
+
+    @Mapping(target = "orderId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Order toOrder(OrderRequest orderRequest);
+
+    List<Order> toOrders(List<OrderRequest> orderRequests);
+
+    OrderCountResponse toOrderCountResponse(OrderCount orderCount);
+
+    OrderStatisticsResponse toOrderStatisticsResponse(OrderStatistics orderStatistics);
+}
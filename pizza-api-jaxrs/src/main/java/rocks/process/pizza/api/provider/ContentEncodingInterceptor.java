@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.provider;
+
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Variant;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses response entities with gzip or deflate, whichever the client prefers (Accept-Encoding). The first
+ * {@code threshold} bytes are buffered; smaller entities are sent uncompressed.
+ */
+@Provider
+public class ContentEncodingInterceptor implements WriterInterceptor {
+
+    /**
+     * The content codings in order of preference; identity comes first so that it is chosen if the client does not
+     * send Accept-Encoding.
+     */
+    public static final String[] ENCODINGS = {"identity", "gzip", "deflate"};
+
+    private static final List<Variant> VARIANTS = Variant.encodings(ENCODINGS).add().build();
+
+    private final int threshold;
+
+    @Context
+    private Request request;
+
+    public ContentEncodingInterceptor(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        context.getHeaders().putSingle(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        Variant variant = request.selectVariant(VARIANTS);
+        if (variant == null || "identity".equals(variant.getEncoding())) {
+            context.proceed();
+            return;
+        }
+        ThresholdOutputStream outputStream = new ThresholdOutputStream(context, variant.getEncoding());
+        context.setOutputStream(outputStream);
+        context.proceed();
+        outputStream.finish();
+    }
+
+    private class ThresholdOutputStream extends OutputStream {
+
+        private final WriterInterceptorContext context;
+        private final OutputStream entityStream;
+        private final String encoding;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream compressed;
+        private boolean finished;
+
+        private ThresholdOutputStream(WriterInterceptorContext context, String encoding) {
+            this.context = context;
+            this.entityStream = context.getOutputStream();
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (compressed == null) {
+                if (buffer.size() + len <= threshold) {
+                    buffer.write(b, off, len);
+                    return;
+                }
+                // the entity stream has not been written to yet, so the header still goes out
+                context.getHeaders().putSingle(HttpHeaders.CONTENT_ENCODING, encoding);
+                OutputStream target = new FilterOutputStream(entityStream) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        flush();
+                    }
+                };
+                compressed = "gzip".equals(encoding) ? new GZIPOutputStream(target) : new DeflaterOutputStream(target);
+                buffer.writeTo(compressed);
+                buffer = null;
+            }
+            compressed.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (compressed != null)
+                compressed.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        /**
+         * Writes the buffered (small) entity as is, or completes the compressed one; the entity stream stays open.
+         */
+        private void finish() throws IOException {
+            if (finished)
+                return;
+            finished = true;
+            if (compressed == null)
+                buffer.writeTo(entityStream);
+            else
+                compressed.close();
+        }
+    }
+}
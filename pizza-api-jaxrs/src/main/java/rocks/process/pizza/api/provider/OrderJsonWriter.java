@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.provider;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import rocks.process.pizza.data.domain.Order;
+
+import java.io.IOException;
+
+/**
+ * Writes orders in the shape of {@link rocks.process.pizza.model.OrderResponse} directly to a generator, without
+ * mapping them to response objects first. The field names are pre-encoded and the orderId is formatted into a
+ * reused buffer, so nothing is allocated per order. One instance per generator; not thread-safe.
+ */
+public class OrderJsonWriter {
+
+    private static final SerializableString ORDER_ID = new SerializedString("orderId");
+    private static final SerializableString PIZZA = new SerializedString("pizza");
+    private static final SerializableString CRUST = new SerializedString("crust");
+
+    private final JsonGenerator generator;
+    private final char[] digits = new char[20];
+
+    public OrderJsonWriter(JsonGenerator generator) {
+        this.generator = generator;
+    }
+
+    public void write(Order order) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ORDER_ID);
+        if (order.getOrderId() == null)
+            generator.writeNull();
+        else
+            writeDigits(order.getOrderId());
+        generator.writeFieldName(PIZZA);
+        generator.writeString(order.getPizza());
+        generator.writeFieldName(CRUST);
+        generator.writeString(order.getCrust());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the value as a string, like {@link Long#toString(long)} but without creating one.
+     */
+    private void writeDigits(long value) throws IOException {
+        int position = digits.length;
+        long remainder = value;
+        do {
+            digits[--position] = (char) ('0' + Math.abs(remainder % 10));
+            remainder /= 10;
+        } while (remainder != 0);
+        if (value < 0)
+            digits[--position] = '-';
+        generator.writeString(digits, position, digits.length - position);
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.provider;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import rocks.process.pizza.data.domain.Order;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Writes {@code List<Order>} entities (wrapped in a {@link javax.ws.rs.core.GenericEntity}) as an array of
+ * {@link rocks.process.pizza.model.OrderResponse} objects in JSON, CBOR or Smile, streaming each order with an
+ * {@link OrderJsonWriter}. The factories are shared, so the generators recycle their buffers.
+ */
+@Provider
+@Produces({"application/json", "application/cbor", "application/x-jackson-smile"})
+public class OrderListWriter implements MessageBodyWriter<List<Order>> {
+
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+    private final JsonFactory jsonFactory = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final JsonFactory cborFactory = new CBORFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final JsonFactory smileFactory = new SmileFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return List.class.isAssignableFrom(type) && genericType instanceof ParameterizedType
+                && ((ParameterizedType) genericType).getActualTypeArguments()[0] == Order.class
+                && factory(mediaType) != null;
+    }
+
+    @Override
+    public long getSize(List<Order> orders, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(List<Order> orders, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+                        MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException {
+        try (JsonGenerator generator = factory(mediaType).createGenerator(entityStream)) {
+            OrderJsonWriter orderWriter = new OrderJsonWriter(generator);
+            generator.writeStartArray(orders.size());
+            for (Order order : orders) {
+                orderWriter.write(order);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private JsonFactory factory(MediaType mediaType) {
+        if (mediaType.isCompatible(MediaType.APPLICATION_JSON_TYPE))
+            return jsonFactory;
+        if (mediaType.isCompatible(CBOR))
+            return cborFactory;
+        if (mediaType.isCompatible(SMILE))
+            return smileFactory;
+        return null;
+    }
+}
@@ -5,17 +5,47 @@
 
 package rocks.process.pizza.config;
 
+import com.fasterxml.jackson.jaxrs.cbor.JacksonCBORProvider;
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import rocks.process.pizza.api.provider.ContentEncodingInterceptor;
+import rocks.process.pizza.api.provider.OrderListWriter;
 
 @Configuration
 public class ProvidersConfig {
 
+	@Value("${pizza.compression.threshold:1024}")
+	private int compressionThreshold;
+
 	@Bean
 	@ConditionalOnMissingBean
 	public JacksonJsonProvider jsonProvider() {
 		return new JacksonJsonProvider();
 	}
-}
\ No newline at end of file
+
+	@Bean
+	@ConditionalOnMissingBean
+	public JacksonCBORProvider cborProvider() {
+		return new JacksonCBORProvider();
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public JacksonSmileProvider smileProvider() {
+		return new JacksonSmileProvider();
+	}
+
+	@Bean
+	public OrderListWriter orderListWriter() {
+		return new OrderListWriter();
+	}
+
+	@Bean
+	public ContentEncodingInterceptor contentEncodingInterceptor() {
+		return new ContentEncodingInterceptor(compressionThreshold);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.swagger.annotations.ApiModelProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OrderStatisticsResponse {
+
+    @ApiModelProperty(value = "")
+    private List<OrderCountResponse> byPizza = new ArrayList<>();
+
+    @ApiModelProperty(value = "")
+    private List<OrderCountResponse> byCrust = new ArrayList<>();
+
+    @ApiModelProperty(value = "")
+    private List<OrderCountResponse> byPizzaAndCrust = new ArrayList<>();
+
+    /**
+     * Get byPizza
+     *
+     * @return byPizza
+     **/
+    @JsonProperty("byPizza")
+    public List<OrderCountResponse> getByPizza() {
+        return byPizza;
+    }
+
+    public void setByPizza(List<OrderCountResponse> byPizza) {
+        this.byPizza = byPizza;
+    }
+
+    public OrderStatisticsResponse byPizza(List<OrderCountResponse> byPizza) {
+        this.byPizza = byPizza;
+        return this;
+    }
+
+    /**
+     * Get byCrust
+     *
+     * @return byCrust
+     **/
+    @JsonProperty("byCrust")
+    public List<OrderCountResponse> getByCrust() {
+        return byCrust;
+    }
+
+    public void setByCrust(List<OrderCountResponse> byCrust) {
+        this.byCrust = byCrust;
+    }
+
+    public OrderStatisticsResponse byCrust(List<OrderCountResponse> byCrust) {
+        this.byCrust = byCrust;
+        return this;
+    }
+
+    /**
+     * Get byPizzaAndCrust
+     *
+     * @return byPizzaAndCrust
+     **/
+    @JsonProperty("byPizzaAndCrust")
+    public List<OrderCountResponse> getByPizzaAndCrust() {
+        return byPizzaAndCrust;
+    }
+
+    public void setByPizzaAndCrust(List<OrderCountResponse> byPizzaAndCrust) {
+        this.byPizzaAndCrust = byPizzaAndCrust;
+    }
+
+    public OrderStatisticsResponse byPizzaAndCrust(List<OrderCountResponse> byPizzaAndCrust) {
+        this.byPizzaAndCrust = byPizzaAndCrust;
+        return this;
+    }
+
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("class OrderStatisticsResponse {\n");
+
+        sb.append("    byPizza: ").append(toIndentedString(byPizza)).append("\n");
+        sb.append("    byCrust: ").append(toIndentedString(byCrust)).append("\n");
+        sb.append("    byPizzaAndCrust: ").append(toIndentedString(byPizzaAndCrust)).append("\n");
+        sb.append("}");
+        return sb.toString();
+    }
+
+    /**
+     * Convert the given object to string with each line indented by 4 spaces
+     * (except the first line).
+     */
+    private static String toIndentedString(Object o) {
+        if (o == null) {
+            return "null";
+        }
+        return o.toString().replace("\n", "\n    ");
+    }
+}
+
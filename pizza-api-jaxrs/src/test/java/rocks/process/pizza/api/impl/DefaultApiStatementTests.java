@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.PizzaApiJaxrsApplication;
+import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.model.OrderRequest;
+import rocks.process.pizza.model.OrderResponse;
+import rocks.process.pizza.sql.SqlStatementRecorder;
+import rocks.process.pizza.sql.SqlStatementRecorderConfig;
+
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static rocks.process.pizza.sql.SqlStatementBudget.budget;
+
+/**
+ * The SQL statements each operation of the REST API may execute; a change that adds a query to an operation fails
+ * here. Every test uses its own pizza, so the caches hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = PizzaApiJaxrsApplication.class)
+@Import(SqlStatementRecorderConfig.class)
+public class DefaultApiStatementTests {
+
+    @Autowired
+    private DefaultApi defaultApi;
+
+    private final Request request = Mockito.mock(Request.class);
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void createOrder() {
+        SqlStatementRecorder.reset();
+        defaultApi.createOrder(orderRequest("thin"));
+        budget().insert(1).other(1).verify();
+    }
+
+    @Test
+    public void createOrders() {
+        List<OrderRequest> orderRequests = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orderRequests.add(orderRequest("thin"));
+        }
+        SqlStatementRecorder.reset();
+        defaultApi.createOrders(orderRequests);
+        budget().insert(3).other(4).verify();
+    }
+
+    @Test
+    public void deleteOrder() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.deleteOrder(order.getOrderId());
+        budget().delete(1).verify();
+    }
+
+    @Test
+    public void deleteOrdersByIds() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(1, (int) defaultApi.deleteOrders(Collections.singletonList(order.getOrderId()), null, null));
+        budget().select(1).delete(1).verify();
+    }
+
+    @Test
+    public void deleteOrdersByPizza() {
+        defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(1, (int) defaultApi.deleteOrders(null, pizza, null));
+        budget().delete(1).verify();
+    }
+
+    @Test
+    public void findOrders() {
+        defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(200, defaultApi.findOrders(pizza, null, null, null, request).getStatus());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        defaultApi.findOrders(pizza, null, null, null, request);
+        budget().verify();
+    }
+
+    @Test
+    public void findOrdersPaged() {
+        defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.findOrders(pizza, null, 0L, 10, request);
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void searchOrders() {
+        defaultApi.createOrder(orderRequest("thin"));
+        defaultApi.searchOrders(pizza, null, null);
+        SqlStatementRecorder.reset();
+        assertEquals(200, defaultApi.searchOrders(pizza.substring(0, 8), null, 10).getStatus());
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void streamOrders() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            defaultApi.createOrder(orderRequest("thin"));
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        SqlStatementRecorder.reset();
+        defaultApi.streamOrders(pizza, null).write(outputStream);
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void readOrderStatistics() {
+        SqlStatementRecorder.reset();
+        defaultApi.readOrderStatistics();
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void readOrder() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(200, defaultApi.readOrder(order.getOrderId(), request).getStatus());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        defaultApi.readOrder(order.getOrderId(), request);
+        budget().verify();
+    }
+
+    @Test
+    public void updateOrder() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.updateOrder(order.getOrderId(), null, orderRequest("thick"), request);
+        budget().update(1).verify();
+    }
+
+    @Test
+    public void updateOrderIfMatch() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        Response response = defaultApi.readOrder(order.getOrderId(), request);
+        SqlStatementRecorder.reset();
+        defaultApi.updateOrder(order.getOrderId(), response.getEntityTag().toString(), orderRequest("thick"), request);
+        budget().update(1).verify();
+    }
+
+    @Test
+    public void patchOrder() {
+        OrderResponse order = defaultApi.createOrder(orderRequest("thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.patchOrder(order.getOrderId(), new OrderRequest().crust("thick"));
+        budget().update(1).verify();
+    }
+
+    private OrderRequest orderRequest(String crust) {
+        return new OrderRequest().pizza(pizza).crust(crust);
+    }
+}
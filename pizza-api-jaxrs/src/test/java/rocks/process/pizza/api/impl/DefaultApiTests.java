@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.cxf.jaxrs.impl.RequestImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.StreamUtils;
+import rocks.process.pizza.PizzaApiJaxrsApplication;
+import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.model.OrderRequest;
+import rocks.process.pizza.model.OrderResponse;
+
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.NotFoundException;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The behavior of the operations of the REST API, called on the bean as the container would or, where the providers
+ * are involved, over HTTP. Every test uses its own pizza, so the caches hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = PizzaApiJaxrsApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class DefaultApiTests {
+
+    private static final String CBOR = "application/cbor";
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DefaultApi defaultApi;
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Request request = Mockito.mock(Request.class);
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void findsNoOrdersAfterLastOrder() {
+        List<OrderResponse> created = defaultApi.createOrders(orderRequests(3));
+        assertEquals(0, findOrders(Long.valueOf(created.get(2).getOrderId()), 10).size());
+        assertEquals(0, findOrders(Long.MAX_VALUE, 10).size());
+    }
+
+    @Test
+    public void pagesThroughOrdersByKeyset() {
+        List<OrderResponse> created = defaultApi.createOrders(orderRequests(5));
+        List<Order> firstPage = findOrders(0L, 2);
+        List<Order> secondPage = findOrders(firstPage.get(1).getOrderId(), 2);
+        List<Order> lastPage = findOrders(secondPage.get(1).getOrderId(), 2);
+        assertEquals(orderIds(created), pageOrderIds(firstPage, secondPage, lastPage));
+        assertEquals(1, lastPage.size());
+    }
+
+    @Test
+    public void boundsPageSize() {
+        defaultApi.createOrders(orderRequests(PizzaService.MAX_PAGE_SIZE + 1));
+        assertEquals(PizzaService.DEFAULT_PAGE_SIZE, findOrders(0L, null).size());
+        assertEquals(PizzaService.DEFAULT_PAGE_SIZE, findOrders(0L, 0).size());
+        assertEquals(PizzaService.DEFAULT_PAGE_SIZE, findOrders(0L, -1).size());
+        assertEquals(PizzaService.MAX_PAGE_SIZE, findOrders(0L, PizzaService.MAX_PAGE_SIZE + 1).size());
+        assertEquals(PizzaService.MAX_PAGE_SIZE, findOrders(null, Integer.MAX_VALUE).size());
+    }
+
+    @Test
+    public void streamsAllMatchingOrders() throws IOException {
+        List<OrderResponse> created = defaultApi.createOrders(orderRequests(PizzaService.MAX_PAGE_SIZE + 1));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        defaultApi.streamOrders(pizza, "thin").write(outputStream);
+        List<Long> orderIds = new ArrayList<>();
+        for (JsonNode order : new ObjectMapper().readTree(outputStream.toByteArray())) {
+            assertEquals(pizza, order.get("pizza").asText());
+            orderIds.add(order.get("orderId").asLong());
+        }
+        assertEquals(orderIds(created), orderIds);
+    }
+
+    @Test
+    public void patchesOnlyGivenFields() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        defaultApi.patchOrder(orderId, new OrderRequest().crust("thick"));
+        assertOrder(orderId, pizza, "thick");
+        String otherPizza = UUID.randomUUID().toString();
+        defaultApi.patchOrder(orderId, new OrderRequest().pizza(otherPizza));
+        assertOrder(orderId, otherPizza, "thick");
+    }
+
+    @Test
+    public void keepsOrderOnEmptyPatch() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        Long version = pizzaService.readOrderById(orderId).getVersion();
+        String entityTag = defaultApi.readOrder(orderId, request).getEntityTag().toString();
+        defaultApi.patchOrder(orderId, new OrderRequest());
+        assertOrder(orderId, pizza, "thin");
+        assertEquals(version, pizzaService.readOrderById(orderId).getVersion());
+        assertEquals(entityTag, defaultApi.readOrder(orderId, request).getEntityTag().toString());
+    }
+
+    @Test
+    public void patchesNoMissingOrderWithEmptyPatch() {
+        try {
+            defaultApi.patchOrder(Long.toString(Long.MAX_VALUE), new OrderRequest());
+            fail("the order should not have been found");
+        } catch (NotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void patchesNoMissingOrder() {
+        String orderId = Long.toString(Long.MAX_VALUE);
+        try {
+            defaultApi.patchOrder(orderId, orderRequest("thin"));
+            fail("the order should not have been found");
+        } catch (NotFoundException e) {
+            assertEquals(204, defaultApi.readOrder(orderId, request).getStatus());
+        }
+    }
+
+    @Test
+    public void deletesNothingWithoutCriteria() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        for (List<String> orderIds : Arrays.asList(null, Collections.<String>emptyList())) {
+            for (String filter : Arrays.asList(null, "")) {
+                try {
+                    defaultApi.deleteOrders(orderIds, filter, filter);
+                    fail("the delete should have been rejected");
+                } catch (BadRequestException e) {
+                    assertEquals(200, defaultApi.readOrder(orderId, request).getStatus());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deletesOrdersByCriteria() {
+        String otherPizza = UUID.randomUUID().toString();
+        List<OrderResponse> created = defaultApi.createOrders(orderRequests(3));
+        String otherOrderId = defaultApi.createOrder(new OrderRequest().pizza(otherPizza).crust("thin")).getOrderId();
+        assertEquals(1, (int) defaultApi.deleteOrders(Arrays.asList(created.get(0).getOrderId(), Long.toString(Long.MAX_VALUE)), null, null));
+        assertEquals(2, (int) defaultApi.deleteOrders(null, pizza, ""));
+        assertEquals(0, findOrders(null, null).size());
+        assertEquals(200, defaultApi.readOrder(otherOrderId, request).getStatus());
+    }
+
+    @Test
+    public void answersUnchangedOrderWithNotModified() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        Response response = defaultApi.readOrder(orderId, request);
+        String entityTag = response.getEntityTag().toString();
+        Response notModified = defaultApi.readOrder(orderId, request(HttpMethod.GET, HttpHeaders.IF_NONE_MATCH, entityTag));
+        assertEquals(304, notModified.getStatus());
+        assertFalse(notModified.hasEntity());
+
+        defaultApi.patchOrder(orderId, new OrderRequest().crust("thick"));
+        Response modified = defaultApi.readOrder(orderId, request(HttpMethod.GET, HttpHeaders.IF_NONE_MATCH, entityTag));
+        assertEquals(200, modified.getStatus());
+        assertNotEquals(entityTag, modified.getEntityTag().toString());
+    }
+
+    @Test
+    public void answersUnchangedOrderListWithNotModified() {
+        defaultApi.createOrder(orderRequest("thin"));
+        String entityTag = defaultApi.findOrders(pizza, null, 0L, 10, request).getEntityTag().toString();
+        Request ifNoneMatch = request(HttpMethod.GET, HttpHeaders.IF_NONE_MATCH, entityTag);
+        assertEquals(304, defaultApi.findOrders(pizza, null, 0L, 10, ifNoneMatch).getStatus());
+
+        defaultApi.createOrder(orderRequest("thick"));
+        assertEquals(200, defaultApi.findOrders(pizza, null, 0L, 10, ifNoneMatch).getStatus());
+    }
+
+    @Test
+    public void updatesOrderIfMatching() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        String entityTag = defaultApi.readOrder(orderId, request).getEntityTag().toString();
+        Response response = defaultApi.updateOrder(orderId, entityTag, orderRequest("thick"), request);
+        assertEquals(200, response.getStatus());
+        assertNotEquals(entityTag, response.getEntityTag().toString());
+        assertEquals(200, defaultApi.updateOrder(orderId, "*", orderRequest("cheese"), request).getStatus());
+        assertOrder(orderId, pizza, "cheese");
+    }
+
+    @Test
+    public void failsUpdateIfNotMatching() {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        String otherOrderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        String entityTag = defaultApi.readOrder(orderId, request).getEntityTag().toString();
+        defaultApi.updateOrder(orderId, entityTag, orderRequest("thick"), request);
+
+        String otherEntityTag = defaultApi.readOrder(otherOrderId, request).getEntityTag().toString();
+        for (String ifMatch : Arrays.asList(entityTag, otherEntityTag, "\"" + orderId + ".x\"", "garbage")) {
+            try {
+                defaultApi.updateOrder(orderId, ifMatch, orderRequest("cheese"), request);
+                fail("the update with If-Match " + ifMatch + " should have failed");
+            } catch (ClientErrorException e) {
+                assertEquals(412, e.getResponse().getStatus());
+            }
+        }
+        assertOrder(orderId, pizza, "thick");
+    }
+
+    @Test
+    public void failsUpdateOfMissingOrderIfMatching() {
+        String orderId = Long.toString(Long.MAX_VALUE);
+        try {
+            defaultApi.updateOrder(orderId, "\"" + orderId + ".0\"", orderRequest("thin"), request);
+            fail("the update should have failed");
+        } catch (ClientErrorException e) {
+            assertEquals(412, e.getResponse().getStatus());
+        }
+    }
+
+    @Test
+    public void roundTripsOrderInBinaryFormats() throws IOException {
+        for (ObjectMapper mapper : Arrays.asList(new ObjectMapper(new CBORFactory()), new ObjectMapper(new SmileFactory()))) {
+            String mediaType = mapper.getFactory() instanceof CBORFactory ? CBOR : SMILE;
+            HttpURLConnection created = connect("POST", "/orders", HttpHeaders.CONTENT_TYPE, mediaType, HttpHeaders.ACCEPT, mediaType);
+            created.getOutputStream().write(mapper.writeValueAsBytes(orderRequest("thin")));
+            assertEquals(200, created.getResponseCode());
+            assertEquals(mediaType, created.getContentType());
+            JsonNode order = mapper.readTree(created.getInputStream());
+            assertEquals(pizza, order.get("pizza").asText());
+
+            HttpURLConnection read = connect("GET", "/orders/" + order.get("orderId").asText(), HttpHeaders.ACCEPT, mediaType);
+            assertEquals(mediaType, read.getContentType());
+            assertEquals(order, mapper.readTree(read.getInputStream()));
+
+            HttpURLConnection found = connect("GET", "/orders?limit=10&pizza=" + pizza, HttpHeaders.ACCEPT, mediaType);
+            assertEquals(mediaType, found.getContentType());
+            JsonNode orders = mapper.readTree(found.getInputStream());
+            assertEquals(order, orders.get(orders.size() - 1));
+        }
+    }
+
+    @Test
+    public void sendsSmallResponseUncompressed() throws IOException {
+        String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+        HttpURLConnection connection = connect("GET", "/orders/" + orderId, HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        assertEquals(200, connection.getResponseCode());
+        assertNull(connection.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("Accept, Accept-Encoding", connection.getHeaderField(HttpHeaders.VARY));
+        assertEquals(orderId, new ObjectMapper().readTree(connection.getInputStream()).get("orderId").asText());
+    }
+
+    @Test
+    public void compressesLargeResponse() throws IOException {
+        List<OrderResponse> created = defaultApi.createOrders(orderRequests(50));
+        String path = "/orders?limit=100&pizza=" + pizza;
+        HttpURLConnection identity = connect("GET", path);
+        assertNull(identity.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("Accept, Accept-Encoding", identity.getHeaderField(HttpHeaders.VARY));
+        byte[] json = StreamUtils.copyToByteArray(identity.getInputStream());
+        assertTrue(json.length > 1024);
+        assertEquals(created.size(), new ObjectMapper().readTree(json).size());
+
+        HttpURLConnection gzip = connect("GET", path, HttpHeaders.ACCEPT_ENCODING, "gzip");
+        assertEquals("gzip", gzip.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("Accept, Accept-Encoding", gzip.getHeaderField(HttpHeaders.VARY));
+        assertArrayEquals(json, StreamUtils.copyToByteArray(new GZIPInputStream(gzip.getInputStream())));
+
+        HttpURLConnection deflate = connect("GET", path, HttpHeaders.ACCEPT_ENCODING, "deflate");
+        assertEquals("deflate", deflate.getHeaderField(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(json, StreamUtils.copyToByteArray(new InflaterInputStream(deflate.getInputStream())));
+    }
+
+    @Test
+    public void timesStreamedOrdersUntilWritten() throws IOException {
+        defaultApi.createOrder(orderRequest("thin"));
+        long count = streamOrdersTimer("none").count();
+        StreamingOutput output = defaultApi.streamOrders(pizza, null);
+        assertEquals(count, streamOrdersTimer("none").count());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        output.write(outputStream);
+        assertTrue(outputStream.toString("UTF-8").contains(pizza));
+        assertEquals(count + 1, streamOrdersTimer("none").count());
+    }
+
+    @Test
+    public void timesFailedStreamedOrdersWithException() {
+        defaultApi.createOrder(orderRequest("thin"));
+        long count = streamOrdersTimer("IOException").count();
+        try {
+            defaultApi.streamOrders(pizza, null).write(new OutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    throw new IOException("connection reset");
+                }
+            });
+            fail("the write should have failed");
+        } catch (IOException e) {
+            assertEquals(count + 1, streamOrdersTimer("IOException").count());
+        }
+    }
+
+    @Test
+    public void streamsOrderChangesAndReplaysAfterLastEventId() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            double subscribers = subscribers();
+            Future<List<Map<String, String>>> received = executor.submit(() -> readChanges(null, 3));
+            while (subscribers() <= subscribers) {
+                Thread.sleep(10);
+            }
+            String orderId = defaultApi.createOrder(orderRequest("thin")).getOrderId();
+            defaultApi.patchOrder(orderId, orderRequest("thick"));
+            defaultApi.deleteOrder(orderId);
+
+            List<Map<String, String>> changes = received.get(10, TimeUnit.SECONDS);
+            assertEquals(Arrays.asList("created", "updated", "deleted"), Arrays.asList(changes.get(0).get("event"),
+                    changes.get(1).get("event"), changes.get(2).get("event")));
+            assertChange(changes.get(0), orderId, pizza, "thin");
+            assertChange(changes.get(1), orderId, pizza, "thick");
+            assertChange(changes.get(2), orderId, null, null);
+            assertEquals(3, new HashSet<>(Arrays.asList(changes.get(0).get("id"), changes.get(1).get("id"),
+                    changes.get(2).get("id"))).size());
+
+            List<Map<String, String>> replayed = executor.submit(() -> readChanges(changes.get(0).get("id"), 2))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(changes.subList(1, 3), replayed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Opens a request to the running service with the given header names and values.
+     */
+    private HttpURLConnection connect(String method, String path, String... headers) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + "/api" + path).openConnection();
+        connection.setRequestMethod(method);
+        for (int i = 0; i < headers.length; i += 2) {
+            connection.setRequestProperty(headers[i], headers[i + 1]);
+        }
+        connection.setDoOutput(!"GET".equals(method));
+        return connection;
+    }
+
+    /**
+     * Subscribes to the order changes and reads the given number of events, each as its field names and values.
+     */
+    private List<Map<String, String>> readChanges(String lastEventId, int count) throws IOException {
+        HttpURLConnection connection = lastEventId == null
+                ? connect("GET", "/orders/changes", HttpHeaders.ACCEPT, "text/event-stream")
+                : connect("GET", "/orders/changes", HttpHeaders.ACCEPT, "text/event-stream", "Last-Event-ID", lastEventId);
+        connection.setReadTimeout(10000);
+        List<Map<String, String>> events = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            Map<String, String> event = new TreeMap<>();
+            while (events.size() < count) {
+                String line = reader.readLine();
+                if (line == null)
+                    fail("the stream ended after " + events.size() + " events");
+                if (line.isEmpty()) {
+                    if (!event.isEmpty())
+                        events.add(event);
+                    event = new TreeMap<>();
+                } else if (line.indexOf(':') > 0) {
+                    String value = line.substring(line.indexOf(':') + 1);
+                    event.put(line.substring(0, line.indexOf(':')), value.startsWith(" ") ? value.substring(1) : value);
+                }
+            }
+        } finally {
+            connection.disconnect();
+        }
+        return events;
+    }
+
+    private static void assertChange(Map<String, String> change, String orderId, String pizza, String crust) throws IOException {
+        JsonNode order = new ObjectMapper().readTree(change.get("data"));
+        assertEquals(orderId, order.get("orderId").asText());
+        assertEquals(pizza, order.path("pizza").textValue());
+        assertEquals(crust, order.path("crust").textValue());
+    }
+
+    private double subscribers() {
+        return meterRegistry.get("pizza.changes.subscribers").gauge().value();
+    }
+
+    /**
+     * A request as the container would pass it, for the evaluation of its preconditions.
+     */
+    private static Request request(String method, String header, String value) {
+        Message message = new MessageImpl();
+        message.put(Message.HTTP_REQUEST_METHOD, method);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put(header, Collections.singletonList(value));
+        message.put(Message.PROTOCOL_HEADERS, headers);
+        return new RequestImpl(message);
+    }
+
+    private void assertOrder(String orderId, String pizza, String crust) {
+        OrderResponse order = (OrderResponse) defaultApi.readOrder(orderId, request).getEntity();
+        assertEquals(pizza, order.getPizza());
+        assertEquals(crust, order.getCrust());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Order> findOrders(Long after, Integer limit) {
+        Response response = defaultApi.findOrders(pizza, null, after, limit, request);
+        assertEquals(200, response.getStatus());
+        return (List<Order>) response.getEntity();
+    }
+
+    private static List<Long> orderIds(List<OrderResponse> orders) {
+        List<Long> orderIds = new ArrayList<>();
+        for (OrderResponse order : orders) {
+            orderIds.add(Long.valueOf(order.getOrderId()));
+        }
+        return orderIds;
+    }
+
+    @SafeVarargs
+    private static List<Long> pageOrderIds(List<Order>... pages) {
+        List<Long> orderIds = new ArrayList<>();
+        for (List<Order> page : pages) {
+            for (Order order : page) {
+                orderIds.add(order.getOrderId());
+            }
+        }
+        return orderIds;
+    }
+
+    private List<OrderRequest> orderRequests(int count) {
+        List<OrderRequest> orderRequests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            orderRequests.add(orderRequest("thin"));
+        }
+        return orderRequests;
+    }
+
+    private Timer streamOrdersTimer(String exception) {
+        return meterRegistry.timer("pizza.api", "class", DefaultApiServiceImpl.class.getName(), "method",
+                "streamOrders", "exception", exception);
+    }
+
+    private OrderRequest orderRequest(String crust) {
+        return new OrderRequest().pizza(pizza).crust(crust);
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.provider;
+
+import com.fasterxml.jackson.jaxrs.base.ProviderBase;
+import com.fasterxml.jackson.jaxrs.cbor.JacksonCBORProvider;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
+import org.junit.Test;
+import rocks.process.pizza.api.mapper.OrderMapper;
+import rocks.process.pizza.api.mapper.OrderMapperImpl;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.model.OrderResponse;
+
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The {@link OrderListWriter} writes the same bytes as the Jackson providers of the service write for the
+ * {@link OrderResponse}s of the orders, in every format it supports.
+ */
+public class OrderListWriterTests {
+
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    private static final Type ORDERS = new GenericType<List<Order>>() {}.getType();
+    private static final Type ORDER_RESPONSES = new GenericType<List<OrderResponse>>() {}.getType();
+
+    private final OrderListWriter orderListWriter = new OrderListWriter();
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+
+    @Test
+    public void writesOrdersLikeJson() throws IOException {
+        assertSameBytes(MediaType.APPLICATION_JSON_TYPE, new JacksonJsonProvider());
+    }
+
+    @Test
+    public void writesOrdersLikeCbor() throws IOException {
+        assertSameBytes(CBOR, new JacksonCBORProvider());
+    }
+
+    @Test
+    public void writesOrdersLikeSmile() throws IOException {
+        assertSameBytes(SMILE, new JacksonSmileProvider());
+    }
+
+    @Test
+    public void writesOnlyListsOfOrders() {
+        assertTrue(orderListWriter.isWriteable(List.class, ORDERS, new Annotation[0], MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(orderListWriter.isWriteable(List.class, ORDER_RESPONSES, new Annotation[0], MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(orderListWriter.isWriteable(List.class, ORDERS, new Annotation[0], MediaType.APPLICATION_XML_TYPE));
+    }
+
+    private void assertSameBytes(MediaType mediaType, ProviderBase<?, ?, ?, ?> provider) throws IOException {
+        List<List<Order>> lists = Arrays.asList(
+                Collections.emptyList(),
+                Collections.singletonList(order(1L, "Margherita", "thin")),
+                Arrays.asList(order(0L, null, "thick"), order(42L, "Funghi", null), order(7L, null, null),
+                        order(Long.MAX_VALUE, "Quattro \"Formaggi\"", "thiné"), order(null, "Diavola", "thin")));
+        for (List<Order> orders : lists) {
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            provider.writeTo(orderMapper.toOrderResponses(orders), List.class, ORDER_RESPONSES, new Annotation[0],
+                    mediaType, new MultivaluedHashMap<>(), expected);
+            ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            orderListWriter.writeTo(new ArrayList<>(orders), List.class, ORDERS, new Annotation[0], mediaType,
+                    new MultivaluedHashMap<>(), actual);
+            assertArrayEquals(mediaType + " " + orders.size() + " orders", expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    private static Order order(Long orderId, String pizza, String crust) {
+        Order order = new Order(pizza, crust);
+        order.setOrderId(orderId);
+        return order;
+    }
+}
@@ -6,6 +6,8 @@
 package rocks.process.pizza.api;
 
 import rocks.process.pizza.model.OrderDTO;
+import rocks.process.pizza.model.OrderPageDTO;
+import rocks.process.pizza.model.OrderStatisticsDTO;
 
 import javax.jws.WebMethod;
 import javax.jws.WebService;
@@ -17,15 +19,38 @@ public interface DefaultApi {
     @WebMethod
     public OrderDTO createOrder(OrderDTO orderDTO);
 
+    @WebMethod
+    public List<OrderDTO> createOrders(List<OrderDTO> orderDTOs);
+
     @WebMethod
     public void deleteOrder(String orderId);
 
+    @WebMethod
+    public int deleteOrders(List<String> orderIds, String pizza, String curst);
+
     @WebMethod
     public List<OrderDTO> findOrders(String pizza, String curst);
 
+    /**
+     * Returns the matching orders page by page, ordered by orderId. The first page is requested without a
+     * continuationToken, each following one with the token of the previous page; the last page has none.
+     */
+    @WebMethod
+    public OrderPageDTO findOrdersPage(String pizza, String curst, Integer pageSize, String continuationToken, boolean withTotalCount);
+
+    /**
+     * Returns the orders whose pizza or crust matches the query by prefix or similarity, page by page like
+     * {@link #findOrdersPage}.
+     */
+    @WebMethod
+    public OrderPageDTO searchOrders(String q, Integer pageSize, String continuationToken);
+
     @WebMethod
     public OrderDTO readOrder(String orderId);
 
+    @WebMethod
+    public OrderStatisticsDTO readOrderStatistics();
+
     @WebMethod
     public OrderDTO updateOrder(OrderDTO orderDTO);
 }
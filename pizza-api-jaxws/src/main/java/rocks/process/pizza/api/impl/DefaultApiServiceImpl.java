@@ -5,17 +5,21 @@
 
 package rocks.process.pizza.api.impl;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.api.mapper.OrderMapper;
 import rocks.process.pizza.business.service.PizzaService;
 import rocks.process.pizza.data.domain.Order;
 import rocks.process.pizza.model.OrderDTO;
+import rocks.process.pizza.model.OrderPageDTO;
+import rocks.process.pizza.model.OrderStatisticsDTO;
 
 import javax.jws.WebService;
-import java.lang.reflect.Type;
+import javax.xml.ws.WebServiceException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -26,36 +30,98 @@ public class DefaultApiServiceImpl implements DefaultApi {
     private PizzaService pizzaService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
 
+    @Timed("pizza.api")
     @Override
     public OrderDTO createOrder(OrderDTO orderDTO) {
         Order order = pizzaService.createOrderWithPizzaAndCrust(orderDTO.getPizza(), orderDTO.getCrust());
-        modelMapper.map(order, orderDTO);
-        return orderDTO;
+        return orderMapper.toOrderDTO(order);
     }
 
+    @Timed("pizza.api")
+    @Override
+    public List<OrderDTO> createOrders(List<OrderDTO> orderDTOs) {
+        return orderMapper.toOrderDTOs(pizzaService.createOrders(orderMapper.toOrders(orderDTOs)));
+    }
+
+    @Timed("pizza.api")
     public void deleteOrder(String orderId) {
         pizzaService.deleteOrderById(orderId);
     }
 
+    @Timed("pizza.api")
+    public int deleteOrders(List<String> orderIds, String pizza, String curst) {
+        if (orderIds != null && !orderIds.isEmpty())
+            return pizzaService.deleteOrdersByIds(orderIds);
+        if ((pizza == null || "".equals(pizza)) && (curst == null || "".equals(curst)))
+            throw new WebServiceException("Either orderIds, pizza or curst is required.");
+        return pizzaService.deleteOrdersByPizzaOrCurst(pizza, curst);
+    }
+
+    @Timed("pizza.api")
     public List<OrderDTO> findOrders(String pizza, String curst) {
-        List<Order> orders = pizzaService.findOrdersByPizzaOrCurst(pizza, curst);
-        Type orderTypeList = new TypeToken<List<OrderDTO>>() {}.getType();
-        return modelMapper.map(orders, orderTypeList);
+        return orderMapper.toOrderDTOs(pizzaService.findOrdersByPizzaOrCurst(pizza, curst));
+    }
+
+    /**
+     * Keyset pagination on orderId, so every page is one bounded query. The continuation token is the (encoded)
+     * orderId of the last order of the previous page; it is only issued for full pages.
+     */
+    @Timed("pizza.api")
+    public OrderPageDTO findOrdersPage(String pizza, String curst, Integer pageSize, String continuationToken, boolean withTotalCount) {
+        List<Order> orders = pizzaService.findOrdersByPizzaOrCurst(pizza, curst, fromContinuationToken(continuationToken), pageSize);
+        OrderPageDTO orderPageDTO = toOrderPageDTO(orders, pageSize);
+        if (withTotalCount)
+            orderPageDTO.setTotalCount(pizzaService.countOrdersByPizzaOrCurst(pizza, curst));
+        return orderPageDTO;
+    }
+
+    @Timed("pizza.api")
+    public OrderPageDTO searchOrders(String q, Integer pageSize, String continuationToken) {
+        if (q == null || q.trim().isEmpty())
+            throw new WebServiceException("q is required.");
+        return toOrderPageDTO(pizzaService.searchOrders(q, fromContinuationToken(continuationToken), pageSize), pageSize);
     }
 
+    @Timed("pizza.api")
     public OrderDTO readOrder(String orderId) {
-        Order order = pizzaService.readOrderById(orderId);
-        OrderDTO orderDTO = new OrderDTO();
-        modelMapper.map(order, orderDTO);
-        return orderDTO;
+        return orderMapper.toOrderDTO(pizzaService.readOrderById(orderId));
     }
 
+    @Timed("pizza.api")
+    public OrderStatisticsDTO readOrderStatistics() {
+        return orderMapper.toOrderStatisticsDTO(pizzaService.getOrderStatistics());
+    }
+
+    @Timed("pizza.api")
     @Override
     public OrderDTO updateOrder(OrderDTO orderDTO) {
         Order order = pizzaService.updateOrderByIdWithPizzaAndCrust(orderDTO.getOrderId(), orderDTO.getPizza(), orderDTO.getCrust());
-        modelMapper.map(order, orderDTO);
-        return orderDTO;
+        if (order == null)
+            throw new WebServiceException("Order " + orderDTO.getOrderId() + " not found.");
+        return orderMapper.toOrderDTO(order);
+    }
+
+    private OrderPageDTO toOrderPageDTO(List<Order> orders, Integer pageSize) {
+        OrderPageDTO orderPageDTO = new OrderPageDTO();
+        orderPageDTO.setOrders(orderMapper.toOrderDTOs(orders));
+        if (orders.size() == PizzaService.pageSize(pageSize))
+            orderPageDTO.setContinuationToken(toContinuationToken(orders.get(orders.size() - 1).getOrderId()));
+        return orderPageDTO;
+    }
+
+    private static String toContinuationToken(Long orderId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(orderId.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static Long fromContinuationToken(String continuationToken) {
+        if (continuationToken == null || "".equals(continuationToken))
+            return null;
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(continuationToken), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new WebServiceException("Invalid continuationToken: " + continuationToken);
+        }
     }
 }
\ No newline at end of file
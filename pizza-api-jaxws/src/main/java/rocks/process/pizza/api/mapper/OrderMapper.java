@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import rocks.process.pizza.business.service.OrderStatistics;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.domain.OrderCount;
+import rocks.process.pizza.model.OrderCountDTO;
+import rocks.process.pizza.model.OrderDTO;
+import rocks.process.pizza.model.OrderStatisticsDTO;
+
+import java.util.List;
+
+/**
+ * Maps between the business entities and the SOAP DTOs. The implementation is generated by MapStruct at compile
+ * time; a null source is mapped to null.
+ */
+@Mapper(componentModel = "spring")
+public interface OrderMapper {
+
+    OrderDTO toOrderDTO(Order order);
+
+    List<OrderDTO> toOrderDTOs(List<Order> orders);
+
+    @Mapping(target = "orderId", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Order toOrder(OrderDTO orderDTO);
+
+    List<Order> toOrders(List<OrderDTO> orderDTOs);
+
+    OrderCountDTO toOrderCountDTO(OrderCount orderCount);
+
+    OrderStatisticsDTO toOrderStatisticsDTO(OrderStatistics orderStatistics);
+}
@@ -1,21 +0,0 @@
-/*
- * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
- * All rights reserved.
- */
-
-package rocks.process.pizza.config;
-
-import org.modelmapper.ModelMapper;
-import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class ProvidersConfig {
-
-	@Bean
-	@ConditionalOnMissingBean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
-	}
-}
\ No newline at end of file
@@ -6,8 +6,11 @@
 package rocks.process.pizza.config;
 
 import org.apache.cxf.Bus;
+import org.apache.cxf.feature.FastInfosetFeature;
 import org.apache.cxf.jaxws.EndpointImpl;
+import org.apache.cxf.transport.common.gzip.GZIPFeature;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import rocks.process.pizza.api.impl.DefaultApiServiceImpl;
@@ -23,10 +26,22 @@ public class WebServiceConfig {
     @Autowired
     private DefaultApiServiceImpl defaultApiService;
 
+    @Value("${pizza.soap.gzip.threshold:1024}")
+    private int gzipThreshold;
+
+    /**
+     * Besides plain XML, the endpoint reads and writes Fast Infoset and gzip, but only when the client asks for it:
+     * responses are Fast Infoset if the request accepts application/fastinfoset, and gzipped (from the threshold on)
+     * if it accepts gzip.
+     */
     @Bean
     public Endpoint endpoint() {
         EndpointImpl endpoint = new EndpointImpl(bus, defaultApiService);
+        GZIPFeature gzipFeature = new GZIPFeature();
+        gzipFeature.setThreshold(gzipThreshold);
+        endpoint.getFeatures().add(new FastInfosetFeature());
+        endpoint.getFeatures().add(gzipFeature);
         endpoint.publish("/orders");
         return endpoint;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.model;
+
+import java.util.List;
+
+public class OrderStatisticsDTO {
+
+    private List<OrderCountDTO> byPizza;
+    private List<OrderCountDTO> byCrust;
+    private List<OrderCountDTO> byPizzaAndCrust;
+
+    public List<OrderCountDTO> getByPizza() {
+        return byPizza;
+    }
+
+    public void setByPizza(List<OrderCountDTO> byPizza) {
+        this.byPizza = byPizza;
+    }
+
+    public List<OrderCountDTO> getByCrust() {
+        return byCrust;
+    }
+
+    public void setByCrust(List<OrderCountDTO> byCrust) {
+        this.byCrust = byCrust;
+    }
+
+    public List<OrderCountDTO> getByPizzaAndCrust() {
+        return byPizzaAndCrust;
+    }
+
+    public void setByPizzaAndCrust(List<OrderCountDTO> byPizzaAndCrust) {
+        this.byPizzaAndCrust = byPizzaAndCrust;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.PizzaApiJaxwsApplication;
+import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.model.OrderDTO;
+import rocks.process.pizza.model.OrderPageDTO;
+import rocks.process.pizza.sql.SqlStatementRecorder;
+import rocks.process.pizza.sql.SqlStatementRecorderConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static rocks.process.pizza.sql.SqlStatementBudget.budget;
+
+/**
+ * The SQL statements each operation of the SOAP API may execute; a change that adds a query to an operation fails
+ * here. Every test uses its own pizza, so the caches hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = PizzaApiJaxwsApplication.class)
+@Import(SqlStatementRecorderConfig.class)
+public class DefaultApiStatementTests {
+
+    @Autowired
+    private DefaultApi defaultApi;
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void createOrder() {
+        SqlStatementRecorder.reset();
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        budget().insert(1).other(1).verify();
+    }
+
+    @Test
+    public void createOrders() {
+        List<OrderDTO> orderDTOs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orderDTOs.add(orderDTO(null, "thin"));
+        }
+        SqlStatementRecorder.reset();
+        defaultApi.createOrders(orderDTOs);
+        budget().insert(3).other(4).verify();
+    }
+
+    @Test
+    public void deleteOrder() {
+        OrderDTO order = defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.deleteOrder(order.getOrderId());
+        budget().delete(1).verify();
+    }
+
+    @Test
+    public void deleteOrdersByIds() {
+        OrderDTO order = defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(1, defaultApi.deleteOrders(Collections.singletonList(order.getOrderId()), null, null));
+        budget().select(1).delete(1).verify();
+    }
+
+    @Test
+    public void deleteOrdersByPizza() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(1, defaultApi.deleteOrders(null, pizza, null));
+        budget().delete(1).verify();
+    }
+
+    @Test
+    public void findOrders() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        assertEquals(1, defaultApi.findOrders(pizza, null).size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        defaultApi.findOrders(pizza, null);
+        budget().verify();
+    }
+
+    @Test
+    public void findOrdersPage() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        OrderPageDTO page = defaultApi.findOrdersPage(pizza, null, 1, null, false);
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        defaultApi.findOrdersPage(pizza, null, 1, page.getContinuationToken(), false);
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void findOrdersPageWithTotalCount() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        assertNotNull(defaultApi.findOrdersPage(pizza, null, 10, null, true).getTotalCount());
+        budget().select(2).verify();
+    }
+
+    @Test
+    public void findOrdersPageByFilter() {
+        String crust = UUID.randomUUID().toString();
+        defaultApi.createOrder(orderDTO(null, crust));
+        defaultApi.createOrder(orderDTO(null, crust));
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        assertPaged(3, pizza, null);
+        assertPaged(2, null, crust);
+        assertPaged(2, pizza, crust);
+    }
+
+    @Test
+    public void searchOrders() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        defaultApi.searchOrders(pizza, null, null);
+        SqlStatementRecorder.reset();
+        assertEquals(1, defaultApi.searchOrders(pizza.substring(0, 8), 10, null).getOrders().size());
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void readOrderStatistics() {
+        SqlStatementRecorder.reset();
+        defaultApi.readOrderStatistics();
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void readOrder() {
+        OrderDTO order = defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        assertNotNull(defaultApi.readOrder(order.getOrderId()));
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        defaultApi.readOrder(order.getOrderId());
+        budget().verify();
+    }
+
+    @Test
+    public void updateOrder() {
+        OrderDTO order = defaultApi.createOrder(orderDTO(null, "thin"));
+        SqlStatementRecorder.reset();
+        defaultApi.updateOrder(orderDTO(order.getOrderId(), "thick"));
+        budget().update(1).verify();
+    }
+
+    /**
+     * Pages through the filtered orders two at a time; every page is one query that filters on the given values only.
+     */
+    private void assertPaged(int count, String pizza, String crust) {
+        String continuationToken = null;
+        int paged = 0;
+        do {
+            SqlStatementRecorder.reset();
+            OrderPageDTO page = defaultApi.findOrdersPage(pizza, crust, 2, continuationToken, true);
+            budget().select(2).verify();
+            for (String statement : SqlStatementRecorder.statements()) {
+                assertFalse(statement, statement.contains(" is null"));
+            }
+            assertEquals(count, page.getTotalCount().intValue());
+            paged += page.getOrders().size();
+            continuationToken = page.getContinuationToken();
+        } while (continuationToken != null);
+        assertEquals(count, paged);
+    }
+
+    private OrderDTO orderDTO(String orderId, String crust) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(orderId);
+        orderDTO.setPizza(pizza);
+        orderDTO.setCrust(crust);
+        return orderDTO;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api.impl;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.PizzaApiJaxwsApplication;
+import rocks.process.pizza.api.DefaultApi;
+import rocks.process.pizza.model.OrderDTO;
+import rocks.process.pizza.model.OrderPageDTO;
+
+import javax.xml.ws.WebServiceException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The behavior of the operations of the SOAP API, called on the bean as the endpoint would. Every test uses its own
+ * pizza, so the caches hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = PizzaApiJaxwsApplication.class)
+public class DefaultApiTests {
+
+    @Autowired
+    private DefaultApi defaultApi;
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void updatesOrder() {
+        String orderId = defaultApi.createOrder(orderDTO(null, "thin")).getOrderId();
+        assertEquals("thick", defaultApi.updateOrder(orderDTO(orderId, "thick")).getCrust());
+        assertEquals("thick", defaultApi.readOrder(orderId).getCrust());
+    }
+
+    @Test
+    public void updatesNoMissingOrder() {
+        String orderId = Long.toString(Long.MAX_VALUE);
+        try {
+            defaultApi.updateOrder(orderDTO(orderId, "thin"));
+            fail("the order should not have been found");
+        } catch (WebServiceException e) {
+            assertNull(defaultApi.readOrder(orderId));
+        }
+    }
+
+    @Test
+    public void deletesNothingWithoutCriteria() {
+        String orderId = defaultApi.createOrder(orderDTO(null, "thin")).getOrderId();
+        for (List<String> orderIds : Arrays.asList(null, Collections.<String>emptyList())) {
+            for (String filter : Arrays.asList(null, "")) {
+                try {
+                    defaultApi.deleteOrders(orderIds, filter, filter);
+                    fail("the delete should have been rejected");
+                } catch (WebServiceException e) {
+                    assertNotNull(defaultApi.readOrder(orderId));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void deletesOrdersByCriteria() {
+        String firstOrderId = defaultApi.createOrder(orderDTO(null, "thin")).getOrderId();
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        defaultApi.createOrder(orderDTO(null, "thick"));
+        OrderDTO otherOrder = orderDTO(null, "thin");
+        otherOrder.setPizza(UUID.randomUUID().toString());
+        String otherOrderId = defaultApi.createOrder(otherOrder).getOrderId();
+        assertEquals(1, defaultApi.deleteOrders(Arrays.asList(firstOrderId, Long.toString(Long.MAX_VALUE)), null, null));
+        assertEquals(2, defaultApi.deleteOrders(null, pizza, ""));
+        assertEquals(0, defaultApi.findOrders(pizza, "").size());
+        assertNotNull(defaultApi.readOrder(otherOrderId));
+    }
+
+    @Test
+    public void pagesThroughOrdersByContinuationToken() {
+        List<String> created = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            created.add(defaultApi.createOrder(orderDTO(null, "thin")).getOrderId());
+        }
+        List<String> paged = new ArrayList<>();
+        OrderPageDTO orderPage = defaultApi.findOrdersPage(pizza, "", 2, null, true);
+        assertEquals(5L, (long) orderPage.getTotalCount());
+        int pages = 1;
+        paged.addAll(orderIds(orderPage));
+        while (orderPage.getContinuationToken() != null) {
+            orderPage = defaultApi.findOrdersPage(pizza, "", 2, orderPage.getContinuationToken(), false);
+            assertNull(orderPage.getTotalCount());
+            paged.addAll(orderIds(orderPage));
+            pages++;
+        }
+        assertEquals(3, pages);
+        assertEquals(created, paged);
+    }
+
+    @Test
+    public void endsWithEmptyPageAfterFullLastPage() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        OrderPageDTO orderPage = defaultApi.findOrdersPage(pizza, "", 1, null, false);
+        assertNotNull(orderPage.getContinuationToken());
+        orderPage = defaultApi.findOrdersPage(pizza, "", 1, orderPage.getContinuationToken(), false);
+        assertEquals(0, orderPage.getOrders().size());
+        assertNull(orderPage.getContinuationToken());
+    }
+
+    @Test
+    public void startsAtFirstPageWithoutContinuationToken() {
+        String orderId = defaultApi.createOrder(orderDTO(null, "thin")).getOrderId();
+        assertEquals(Collections.singletonList(orderId), orderIds(defaultApi.findOrdersPage(pizza, "", 10, "", false)));
+    }
+
+    @Test
+    public void rejectsMalformedContinuationToken() {
+        defaultApi.createOrder(orderDTO(null, "thin"));
+        String notANumber = Base64.getUrlEncoder().encodeToString("abc".getBytes(StandardCharsets.US_ASCII));
+        String tooLarge = Base64.getUrlEncoder().encodeToString("99999999999999999999".getBytes(StandardCharsets.US_ASCII));
+        for (String continuationToken : Arrays.asList("not base64!", "%%%", notANumber, tooLarge)) {
+            try {
+                defaultApi.findOrdersPage(pizza, "", 10, continuationToken, false);
+                fail("the continuation token " + continuationToken + " should have been rejected");
+            } catch (WebServiceException e) {
+                assertTrue(e.getMessage().contains(continuationToken));
+            }
+        }
+    }
+
+    private static List<String> orderIds(OrderPageDTO orderPage) {
+        List<String> orderIds = new ArrayList<>();
+        for (OrderDTO order : orderPage.getOrders()) {
+            orderIds.add(order.getOrderId());
+        }
+        return orderIds;
+    }
+
+    private OrderDTO orderDTO(String orderId, String crust) {
+        OrderDTO orderDTO = new OrderDTO();
+        orderDTO.setOrderId(orderId);
+        orderDTO.setPizza(pizza);
+        orderDTO.setCrust(crust);
+        return orderDTO;
+    }
+}
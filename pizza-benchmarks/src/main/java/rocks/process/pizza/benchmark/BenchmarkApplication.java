@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import rocks.process.pizza.business.cache.OrderCache;
+import rocks.process.pizza.business.event.OrderChangeFeed;
+import rocks.process.pizza.business.search.OrderSearchIndex;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.business.storage.StorageCheckpoint;
+import rocks.process.pizza.config.BusinessConfig;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.repository.OrderRepository;
+
+/**
+ * Business layer only (no web server), backed by the in-memory H2 database (or, with the profile {@code durable}, by
+ * an H2 file).
+ */
+@SpringBootApplication(scanBasePackageClasses = {PizzaService.class, OrderCache.class, OrderChangeFeed.class, OrderSearchIndex.class,
+        StorageCheckpoint.class, BusinessConfig.class})
+@EntityScan(basePackageClasses = Order.class)
+@EnableJpaRepositories(basePackageClasses = OrderRepository.class)
+public class BenchmarkApplication {
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.main.banner-mode=off", "logging.level.root=WARN")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.data.domain.Order;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write throughput of the H2 file database of the profile {@code durable}, with the commits written to the file at
+ * each commit ({@code writeDelay} 0) or at most every {@code writeDelay} milliseconds. Each trial starts on a new
+ * database file.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableStorageBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"0", "500"})
+    private int writeDelay;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private PizzaService pizzaService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pizza-durable");
+        context = BenchmarkApplication.start("spring.profiles.active=durable", "pizza.storage.directory=" + directory,
+                "pizza.storage.write-delay-millis=" + writeDelay);
+        pizzaService = context.getBean(PizzaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return pizzaService.createOrderWithPizzaAndCrust("Margherita", "thin");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Order> createOrders() {
+        return pizzaService.createOrders(Orders.withoutIds(BATCH));
+    }
+}
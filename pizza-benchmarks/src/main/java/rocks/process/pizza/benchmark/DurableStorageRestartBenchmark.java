@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.data.domain.Order;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restart of the business layer on an existing H2 file database of the profile {@code durable} holding
+ * {@code orders} orders: the start of the context, including opening the file and checking the schema, and the first
+ * read. The difference to {@code orders=0} is the cost of the database size.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DurableStorageRestartBenchmark {
+
+    private static final int BATCH = 10000;
+
+    @Param({"0", "1000000"})
+    private int orders;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("pizza-durable");
+        context = start();
+        PizzaService pizzaService = context.getBean(PizzaService.class);
+        for (int created = 0; created < orders; created += BATCH) {
+            pizzaService.createOrders(Orders.withoutIds(Math.min(BATCH, orders - created)));
+        }
+        context.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stop() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Order restart() {
+        context = start();
+        return context.getBean(PizzaService.class).readOrderById("1");
+    }
+
+    private ConfigurableApplicationContext start() {
+        return BenchmarkApplication.start("spring.profiles.active=durable", "pizza.storage.directory=" + directory);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.domain.OrderIdGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput with the order ids allocated one at a time ({@code allocationSize} 1: one sequence call per
+ * insert, as with the former {@code hibernate_sequence}) or in blocks of 50 (the default).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIdAllocationBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"1", "50"})
+    private int allocationSize;
+
+    private ConfigurableApplicationContext context;
+    private PizzaService pizzaService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties." + OrderIdGenerator.ALLOCATION_SIZE_SETTING + "=" + allocationSize);
+        pizzaService = context.getBean(PizzaService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return pizzaService.createOrderWithPizzaAndCrust("Margherita", "thin");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Order> createOrders() {
+        return pizzaService.createOrders(Orders.withoutIds(BATCH));
+    }
+}
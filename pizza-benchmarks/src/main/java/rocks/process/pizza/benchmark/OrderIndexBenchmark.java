@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.repository.OrderRepository;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the pizza/crust finders of the {@link OrderRepository} (not cached) for a growing number of orders, with
+ * and without the indexes of {@code PIZZA_ORDER}. Each pizza occurs in 100 orders and each crust in 50, whatever the
+ * number of orders, so every query returns the same number of orders (100, 50 and 50).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class OrderIndexBenchmark {
+
+    private static final int INSERT_CHUNK = 1000000;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int orders;
+
+    @Param({"true", "false"})
+    private boolean indexes;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private int pizzas;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        orderRepository = context.getBean(OrderRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (!indexes) {
+            jdbcTemplate.execute("drop index IDX_PIZZA_ORDER_PIZZA_CRUST");
+            jdbcTemplate.execute("drop index IDX_PIZZA_ORDER_CRUST");
+        }
+        pizzas = orders / 100;
+        for (int first = 1; first <= orders; first += INSERT_CHUNK) {
+            jdbcTemplate.update("insert into PIZZA_ORDER (ORDER_ID, PIZZA, CRUST, VERSION) select X, 'Pizza ' || mod(X, ?), 'Crust ' || mod(X, ?), 0 from system_range(?, ?)",
+                    pizzas, 2 * pizzas, first, Math.min(first + INSERT_CHUNK - 1, orders));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Order> findByPizza() {
+        return orderRepository.findPizzaOrdersByPizza("Pizza " + ThreadLocalRandom.current().nextInt(pizzas));
+    }
+
+    @Benchmark
+    public List<Order> findByCrust() {
+        return orderRepository.findPizzaOrdersByCrust("Crust " + ThreadLocalRandom.current().nextInt(2 * pizzas));
+    }
+
+    @Benchmark
+    public List<Order> findByPizzaAndCrust() {
+        int pizza = ThreadLocalRandom.current().nextInt(pizzas);
+        return orderRepository.findPizzaOrdersByPizzaAndCrust("Pizza " + pizza, "Crust " + pizza);
+    }
+}
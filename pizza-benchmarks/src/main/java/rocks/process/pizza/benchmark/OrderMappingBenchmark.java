@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.modelmapper.TypeToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.mapstruct.factory.Mappers;
+import rocks.process.pizza.api.impl.DefaultApiServiceImpl;
+import rocks.process.pizza.api.mapper.OrderMapper;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.model.OrderResponse;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order to DTO mapping of a found list of orders: the generated {@link OrderMapper} as used by the JAX-RS
+ * {@link DefaultApiServiceImpl}, and the reflective {@link ModelMapper} mapping it replaced in the JAX-WS service
+ * (kept here as baseline, with a mirrored {@link OrderDTO}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private OrderMapper orderMapper;
+    private List<Order> orders;
+    private ModelMapper modelMapper;
+
+    @Setup
+    public void setUp() {
+        orders = Orders.withIds(size);
+        orderMapper = Mappers.getMapper(OrderMapper.class);
+        modelMapper = new ModelMapper();
+    }
+
+    @Benchmark
+    public List<OrderResponse> mapStruct() {
+        return orderMapper.toOrderResponses(orders);
+    }
+
+    /**
+     * The former JAX-WS DefaultApiServiceImpl#findOrders.
+     */
+    @Benchmark
+    public List<OrderDTO> modelMapper() {
+        Type orderTypeList = new TypeToken<List<OrderDTO>>() {}.getType();
+        return modelMapper.map(orders, orderTypeList);
+    }
+
+    public static class OrderDTO {
+
+        private String orderId;
+        private String pizza;
+        private String crust;
+
+        public String getOrderId() {
+            return orderId;
+        }
+
+        public void setOrderId(String orderId) {
+            this.orderId = orderId;
+        }
+
+        public String getPizza() {
+            return pizza;
+        }
+
+        public void setPizza(String pizza) {
+            this.pizza = pizza;
+        }
+
+        public String getCrust() {
+            return crust;
+        }
+
+        public void setCrust(String crust) {
+            this.crust = crust;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.mapstruct.factory.Mappers;
+import rocks.process.pizza.api.mapper.OrderMapper;
+import rocks.process.pizza.api.provider.OrderListWriter;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.model.OrderResponse;
+
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.MediaType;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of order lists: Jackson data binding of OrderResponse lists as written by the JAX-RS JSON
+ * provider (with and without the preceding mapping from the entities), and the streaming {@link OrderListWriter}
+ * that writes the entities directly. The output is counted and discarded, so only the serialization itself is
+ * measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderSerializationBenchmark {
+
+    private static final Type ORDER_LIST_TYPE = new GenericType<List<Order>>() {}.getType();
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+    private final OrderListWriter orderListWriter = new OrderListWriter();
+    private List<Order> orders;
+    private List<OrderResponse> orderResponses;
+
+    @Setup
+    public void setUp() {
+        orders = Orders.withIds(size);
+        orderResponses = new ArrayList<>(size);
+        for (Order order : orders) {
+            OrderResponse orderResponse = new OrderResponse();
+            orderResponse.setPizza(order.getPizza());
+            orderResponse.setCrust(order.getCrust());
+            orderResponse.setOrderId(order.getOrderId().toString());
+            orderResponses.add(orderResponse);
+        }
+    }
+
+    @Benchmark
+    public long writeJson() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        objectMapper.writeValue(outputStream, orderResponses);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long mapAndWriteJson() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        objectMapper.writeValue(outputStream, orderMapper.toOrderResponses(orders));
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long writeJsonStreaming() throws IOException {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        orderListWriter.writeTo(orders, List.class, ORDER_LIST_TYPE, new Annotation[0], MediaType.APPLICATION_JSON_TYPE, null, outputStream);
+        return outputStream.count;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
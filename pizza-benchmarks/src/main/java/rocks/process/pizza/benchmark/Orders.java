@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import rocks.process.pizza.data.domain.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+final class Orders {
+
+    static final String[] PIZZAS = {"Margherita", "Funghi", "Prosciutto", "Hawaii", "Diavola"};
+    static final String[] CRUSTS = {"thin", "thick", "cheese"};
+
+    private Orders() {
+    }
+
+    /**
+     * Detached orders with ids 1..size, as returned by the business layer.
+     */
+    static List<Order> withIds(int size) {
+        List<Order> orders = withoutIds(size);
+        for (int i = 0; i < size; i++) {
+            orders.get(i).setOrderId(i + 1L);
+        }
+        return orders;
+    }
+
+    static List<Order> withoutIds(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(new Order(PIZZAS[i % PIZZAS.length], CRUSTS[i % CRUSTS.length]));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import rocks.process.pizza.business.service.PizzaService;
+import rocks.process.pizza.data.domain.Order;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PizzaService} CRUD against the in-memory H2 database. The database is populated with {@code orders}
+ * orders before the measurement; reads and updates pick one of them at random.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PizzaServiceBenchmark {
+
+    private static final int BATCH = 100;
+
+    @Param({"10000"})
+    private int orders;
+
+    private ConfigurableApplicationContext context;
+    private PizzaService pizzaService;
+    private String[] orderIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        pizzaService = context.getBean(PizzaService.class);
+        List<Order> created = pizzaService.createOrders(Orders.withoutIds(orders));
+        orderIds = new String[created.size()];
+        for (int i = 0; i < created.size(); i++) {
+            orderIds[i] = created.get(i).getOrderId().toString();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return pizzaService.createOrderWithPizzaAndCrust("Margherita", "thin");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Order> createOrders() {
+        return pizzaService.createOrders(Orders.withoutIds(BATCH));
+    }
+
+    @Benchmark
+    public Order readOrder() {
+        return pizzaService.readOrderById(randomOrderId());
+    }
+
+    @Benchmark
+    public List<Order> findOrdersByPizzaAndCrust() {
+        return pizzaService.findOrdersByPizzaOrCurst(Orders.PIZZAS[ThreadLocalRandom.current().nextInt(Orders.PIZZAS.length)], "thin");
+    }
+
+    @Benchmark
+    public List<Order> findOrdersPage() {
+        return pizzaService.findOrdersByPizzaOrCurst(null, null, ThreadLocalRandom.current().nextLong(orders), PizzaService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Order> searchOrders() {
+        return pizzaService.searchOrders("margerita", null, PizzaService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Order updateOrder() {
+        return pizzaService.updateOrderByIdWithPizzaAndCrust(randomOrderId(), "Funghi", "thick");
+    }
+
+    @Benchmark
+    public void createAndDeleteOrder() {
+        pizzaService.deleteOrderById(pizzaService.createOrderWithPizzaAndCrust("Hawaii", "cheese").getOrderId().toString());
+    }
+
+    private String randomOrderId() {
+        return orderIds[ThreadLocalRandom.current().nextInt(orderIds.length)];
+    }
+}
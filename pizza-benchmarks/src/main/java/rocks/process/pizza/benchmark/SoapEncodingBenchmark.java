@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.benchmark;
+
+import com.sun.xml.fastinfoset.stax.StAXDocumentParser;
+import com.sun.xml.fastinfoset.stax.StAXDocumentSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rocks.process.pizza.data.domain.Order;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encodings of the SOAP findOrders response body, as the JAX-WS endpoint writes them with JAXB: plain XML, gzipped
+ * XML and Fast Infoset. The write benchmarks return the payload size in bytes (logged once per trial as well); the
+ * parse benchmarks unmarshal the payload back into orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SoapEncodingBenchmark {
+
+    private static Logger logger = LoggerFactory.getLogger(SoapEncodingBenchmark.class);
+
+    private static final String NAMESPACE = "http://api.pizza.process.rocks/";
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    private final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+    private JAXBContext jaxbContext;
+    private FindOrdersResponse response;
+    private byte[] xml;
+    private byte[] gzipXml;
+    private byte[] fastInfoset;
+
+    @Setup
+    public void setUp() throws Exception {
+        jaxbContext = JAXBContext.newInstance(FindOrdersResponse.class);
+        response = new FindOrdersResponse();
+        for (Order order : Orders.withIds(size)) {
+            OrderDTO orderDTO = new OrderDTO();
+            orderDTO.orderId = order.getOrderId().toString();
+            orderDTO.pizza = order.getPizza();
+            orderDTO.crust = order.getCrust();
+            response.orders.add(orderDTO);
+        }
+        xml = toBytes(this::writeXml);
+        gzipXml = toBytes(this::writeGzipXml);
+        fastInfoset = toBytes(this::writeFastInfoset);
+        logger.info("Payload bytes for " + size + " orders: xml " + xml.length + ", gzip xml " + gzipXml.length
+                + ", fast infoset " + fastInfoset.length + ".");
+    }
+
+    @Benchmark
+    public long writeXml() throws Exception {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        writeXml(outputStream);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long writeGzipXml() throws Exception {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        writeGzipXml(outputStream);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public long writeFastInfoset() throws Exception {
+        CountingOutputStream outputStream = new CountingOutputStream();
+        writeFastInfoset(outputStream);
+        return outputStream.count;
+    }
+
+    @Benchmark
+    public FindOrdersResponse parseXml() throws Exception {
+        return unmarshal(xmlInputFactory.createXMLStreamReader(new ByteArrayInputStream(xml)));
+    }
+
+    @Benchmark
+    public FindOrdersResponse parseGzipXml() throws Exception {
+        try (InputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(gzipXml))) {
+            return unmarshal(xmlInputFactory.createXMLStreamReader(inputStream));
+        }
+    }
+
+    @Benchmark
+    public FindOrdersResponse parseFastInfoset() throws Exception {
+        return unmarshal(new StAXDocumentParser(new ByteArrayInputStream(fastInfoset)));
+    }
+
+    private void writeXml(OutputStream outputStream) throws JAXBException, XMLStreamException {
+        marshal(xmlOutputFactory.createXMLStreamWriter(outputStream, "UTF-8"));
+    }
+
+    private void writeGzipXml(OutputStream outputStream) throws JAXBException, XMLStreamException, IOException {
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream)) {
+            writeXml(gzipOutputStream);
+        }
+    }
+
+    private void writeFastInfoset(OutputStream outputStream) throws JAXBException, XMLStreamException {
+        marshal(new StAXDocumentSerializer(outputStream));
+    }
+
+    private void marshal(XMLStreamWriter writer) throws JAXBException, XMLStreamException {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        writer.writeStartDocument();
+        marshaller.setProperty(Marshaller.JAXB_FRAGMENT, true);
+        marshaller.marshal(response, writer);
+        writer.writeEndDocument();
+        writer.close();
+    }
+
+    private FindOrdersResponse unmarshal(XMLStreamReader reader) throws JAXBException, XMLStreamException {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        try {
+            return (FindOrdersResponse) unmarshaller.unmarshal(reader);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static byte[] toBytes(Writer writer) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        writer.write(outputStream);
+        return outputStream.toByteArray();
+    }
+
+    private interface Writer {
+        void write(OutputStream outputStream) throws Exception;
+    }
+
+    /**
+     * The findOrders response wrapper and order type of the JAX-WS endpoint (pizza-api-jaxws is not a dependency,
+     * its classes clash with the ones of pizza-api-jaxrs).
+     */
+    @XmlRootElement(name = "findOrdersResponse", namespace = NAMESPACE)
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class FindOrdersResponse {
+
+        @XmlElement(name = "return")
+        private List<OrderDTO> orders = new ArrayList<>();
+    }
+
+    @XmlAccessorType(XmlAccessType.FIELD)
+    public static class OrderDTO {
+
+        private String orderId;
+        private String pizza;
+        private String crust;
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.repository.OrderRepository;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static rocks.process.pizza.business.cache.CacheInvalidation.afterCommit;
+
+/**
+ * Size- and TTL-bounded read-through cache (Caffeine, W-TinyLFU eviction) in front of
+ * {@link OrderRepository#findById(Object)}. Absent ids are cached as well, but only for a short time.
+ * Invalidations issued within a transaction are applied after its commit.
+ */
+@Component
+public class OrderCache implements MeterBinder {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${pizza.cache.order.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${pizza.cache.order.expire-after-write-seconds:300}")
+    private long expireAfterWriteSeconds;
+
+    @Value("${pizza.cache.order.negative-expire-after-write-seconds:5}")
+    private long negativeExpireAfterWriteSeconds;
+
+    private LoadingCache<Long, Optional<Order>> cache;
+
+    @PostConstruct
+    private void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Long, Optional<Order>>() {
+                    @Override
+                    public long expireAfterCreate(Long orderId, Optional<Order> order, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(order.isPresent() ? expireAfterWriteSeconds : negativeExpireAfterWriteSeconds);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Long orderId, Optional<Order> order, long currentTime, long currentDuration) {
+                        return expireAfterCreate(orderId, order, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long orderId, Optional<Order> order, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(orderId -> orderRepository.findById(orderId));
+    }
+
+    public Order get(Long orderId) {
+        return cache.get(orderId).orElse(null);
+    }
+
+    public void invalidate(Long orderId) {
+        afterCommit(() -> cache.invalidate(orderId));
+    }
+
+    public void invalidateAll(Collection<Long> orderIds) {
+        afterCommit(() -> cache.invalidateAll(orderIds));
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> cache.invalidateAll());
+    }
+
+    /**
+     * Hit, miss, load and eviction counters since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "order");
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import rocks.process.pizza.data.domain.Order;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+import static rocks.process.pizza.business.cache.CacheInvalidation.afterCommit;
+
+/**
+ * Caches the results of the pizza/crust finder queries, keyed by the normalized (pizza, crust) filter. The
+ * unfiltered query is never cached. The cache is bounded by the total number of cached orders and by a write TTL.
+ *
+ * <p>Writes only invalidate the filters they can affect: the filters matching the written pizza/crust values and
+ * the filters whose cached result contains a written order. Invalidations issued within a transaction are applied
+ * after its commit. A result whose query overlapped with an invalidation is returned but not cached.
+ */
+@Component
+public class OrderQueryCache implements MeterBinder {
+
+    @Value("${pizza.cache.order-query.maximum-orders:100000}")
+    private long maximumOrders;
+
+    @Value("${pizza.cache.order-query.expire-after-write-seconds:60}")
+    private long expireAfterWriteSeconds;
+
+    private Cache<Filter, List<Order>> cache;
+
+    private long generation;
+
+    @PostConstruct
+    private void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maximumOrders)
+                .<Filter, List<Order>>weigher((filter, orders) -> orders.size() + 1)
+                .expireAfterWrite(expireAfterWriteSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached result for the given filter, or runs and caches the query. Both filter values have to be
+     * normalized (null instead of empty).
+     */
+    public List<Order> get(String pizza, String crust, Supplier<List<Order>> query) {
+        if (pizza == null && crust == null)
+            return query.get();
+        Filter filter = new Filter(pizza, crust);
+        List<Order> orders = cache.getIfPresent(filter);
+        if (orders != null)
+            return orders;
+        long queryGeneration = generation();
+        orders = Collections.unmodifiableList(query.get());
+        synchronized (this) {
+            if (queryGeneration == generation)
+                cache.put(filter, orders);
+        }
+        return orders;
+    }
+
+    /**
+     * Invalidates the filters that match orders with the given pizza and crust; a null value matches any.
+     */
+    public void invalidate(String pizza, String crust) {
+        afterCommit(() -> invalidateIf((filter, orders) -> filter.matches(pizza, crust)));
+    }
+
+    /**
+     * Invalidates the filters that match any of the given (new or changed) orders.
+     */
+    public void invalidate(Collection<Order> orders) {
+        Set<Filter> written = new HashSet<>();
+        for (Order order : orders) {
+            written.add(new Filter(order.getPizza(), order.getCrust()));
+        }
+        afterCommit(() -> invalidateIf((filter, cached) -> written.stream().anyMatch(value -> filter.matches(value.pizza, value.crust))));
+    }
+
+    /**
+     * Invalidates the filters whose cached result contains one of the given orders.
+     */
+    public void invalidateOrders(Collection<Long> orderIds) {
+        Set<Long> ids = new HashSet<>(orderIds);
+        afterCommit(() -> invalidateIf((filter, orders) -> orders.stream().anyMatch(order -> ids.contains(order.getOrderId()))));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "order-query");
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    private synchronized void invalidateIf(BiPredicate<Filter, List<Order>> affected) {
+        generation++;
+        cache.asMap().entrySet().removeIf(entry -> affected.test(entry.getKey(), entry.getValue()));
+    }
+
+    private static final class Filter {
+
+        private final String pizza;
+        private final String crust;
+
+        private Filter(String pizza, String crust) {
+            this.pizza = pizza;
+            this.crust = crust;
+        }
+
+        private boolean matches(String pizza, String crust) {
+            return (this.pizza == null || pizza == null || this.pizza.equals(pizza))
+                    && (this.crust == null || crust == null || this.crust.equals(crust));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Filter filter = (Filter) o;
+            return Objects.equals(pizza, filter.pizza) && Objects.equals(crust, filter.crust);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(pizza, crust);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.event;
+
+/**
+ * A change of orders, published by the write methods of the {@link rocks.process.pizza.business.service.PizzaService}
+ * and handed to the subscribers of the {@link OrderChangeFeed} once the transaction has committed. Unknown fields are
+ * null: a patch reports only the changed fields, and a delete by pizza and/or crust reports this filter instead of an
+ * orderId.
+ */
+public class OrderChangeEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        /**
+         * The changes after the requested event are no longer buffered (or belong to an earlier run of the service);
+         * the subscriber has to read the orders again.
+         */
+        RESET
+    }
+
+    private final String id;
+    private final Type type;
+    private final Long orderId;
+    private final String pizza;
+    private final String crust;
+
+    public OrderChangeEvent(Type type, Long orderId, String pizza, String crust) {
+        this(null, type, orderId, pizza, crust);
+    }
+
+    private OrderChangeEvent(String id, Type type, Long orderId, String pizza, String crust) {
+        this.id = id;
+        this.type = type;
+        this.orderId = orderId;
+        this.pizza = pizza;
+        this.crust = crust;
+    }
+
+    OrderChangeEvent withId(String id) {
+        return new OrderChangeEvent(id, type, orderId, pizza, crust);
+    }
+
+    /**
+     * The position of the change in the {@link OrderChangeFeed}; null until it has been published there.
+     */
+    public String getId() {
+        return id;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public String getPizza() {
+        return pizza;
+    }
+
+    public String getCrust() {
+        return crust;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Hands the committed {@link OrderChangeEvent}s to its subscribers, in commit order, and keeps the last
+ * {@code pizza.changes.replay-size} of them, so that a subscriber can resume after the last change it has seen. The
+ * ids of the changes start with the start time of the service, so an id of an earlier run is not mistaken for one of
+ * this run.
+ * <p>
+ * Subscribers are called while the feed is locked and should only queue the change; a subscriber that returns false
+ * is removed.
+ */
+@Component
+public class OrderChangeFeed implements MeterBinder {
+
+    @Value("${pizza.changes.replay-size:1000}")
+    private int replaySize;
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final ArrayDeque<OrderChangeEvent> replay = new ArrayDeque<>();
+    private final List<Predicate<OrderChangeEvent>> subscribers = new ArrayList<>();
+    private long sequence;
+
+    /**
+     * Called after the commit of the publishing transaction, or right away if there is none.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void publish(OrderChangeEvent event) {
+        OrderChangeEvent change = event.withId(epoch + ++sequence);
+        if (replaySize > 0) {
+            if (replay.size() == replaySize)
+                replay.removeFirst();
+            replay.addLast(change);
+        }
+        subscribers.removeIf(subscriber -> !subscriber.test(change));
+    }
+
+    /**
+     * Subscribes to the changes published from now on. With the id of the last change the subscriber has seen, the
+     * subsequent changes are replayed first; if they are no longer buffered, the subscriber gets a
+     * {@link OrderChangeEvent.Type#RESET} instead.
+     *
+     * @param lastEventId the id of the last change seen, or null to skip the replay
+     */
+    public synchronized void subscribe(String lastEventId, Predicate<OrderChangeEvent> subscriber) {
+        if (lastEventId == null || replay(sequenceOf(lastEventId), subscriber))
+            subscribers.add(subscriber);
+    }
+
+    private boolean replay(long after, Predicate<OrderChangeEvent> subscriber) {
+        long first = sequence - replay.size() + 1;
+        if (after < first - 1 || after > sequence)
+            return subscriber.test(new OrderChangeEvent(OrderChangeEvent.Type.RESET, null, null, null).withId(epoch + sequence));
+        Iterator<OrderChangeEvent> changes = replay.iterator();
+        for (long skip = after - first + 1; skip > 0; skip--) {
+            changes.next();
+        }
+        while (changes.hasNext()) {
+            if (!subscriber.test(changes.next()))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the sequence number of the given id, or -1 if it is not an id of this run
+     */
+    private long sequenceOf(String id) {
+        if (!id.startsWith(epoch))
+            return -1;
+        try {
+            return Long.parseLong(id.substring(epoch.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("pizza.changes.subscribers", this, OrderChangeFeed::subscriberCount).register(registry);
+    }
+}
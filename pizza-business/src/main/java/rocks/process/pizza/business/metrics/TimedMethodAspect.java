@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.metrics;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the methods annotated with {@link Timed}, tagged with class, method and the exception thrown ({@code none}
+ * if the call succeeded). Unlike Micrometer's {@code TimedAspect}, which builds and looks up its timer on every call,
+ * the timer of a successful call is resolved once per method, so timing a call costs two clock reads and a record.
+ */
+@Aspect
+public class TimedMethodAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedMethodAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.clock = meterRegistry.config().clock();
+    }
+
+    @Around("execution (@io.micrometer.core.annotation.Timed * *.*(..))")
+    public Object timedMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = clock.monotonicTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            timer(method, e.getClass().getSimpleName()).record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        Timer timer = timers.get(method);
+        if (timer == null)
+            timer = timers.computeIfAbsent(method, key -> timer(key, "none"));
+        timer.record(clock.monotonicTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private Timer timer(Method method, String exception) {
+        Timed timed = method.getAnnotation(Timed.class);
+        return Timer.builder(timed.value())
+                .description(timed.description().isEmpty() ? null : timed.description())
+                .tags(timed.extraTags())
+                .tag("class", method.getDeclaringClass().getName())
+                .tag("method", method.getName())
+                .tag("exception", exception)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import rocks.process.pizza.business.event.OrderChangeEvent;
+import rocks.process.pizza.data.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of the distinct pizza and crust values, so that a search only has to query the orders with
+ * matching values. A value matches a query (case-insensitive) if it starts with it or if their trigram similarity
+ * (as in PostgreSQL's pg_trgm: shared trigrams of the padded words / all trigrams) reaches
+ * {@code pizza.search.similarity}.
+ * <p>
+ * The index is built on the first search and then kept up to date from the committed {@link OrderChangeEvent}s. As
+ * these do not tell whether an update or a delete removed the last order with a value, such a value may stay in the
+ * index (and match no order) until the next rebuild. The rebuild runs in the background, every
+ * {@code pizza.search.rebuild-interval-millis} if the index may hold such values; searches use the previous index
+ * until the new one replaces it.
+ */
+@Component
+public class OrderSearchIndex {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${pizza.search.similarity:0.3}")
+    private double similarity;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object buildLock = new Object();
+    private ValueIndex pizzas = new ValueIndex();
+    private ValueIndex crusts = new ValueIndex();
+    private boolean built;
+    private boolean stale;
+    /**
+     * The changes committed while a build is running, applied to the new index before it replaces the previous one.
+     */
+    private List<OrderChangeEvent> changesDuringBuild;
+
+    /**
+     * The pizza and crust values matching the query.
+     */
+    public Matches search(String query) {
+        String normalized = normalize(query);
+        if (!isBuilt())
+            build(false);
+        lock.readLock().lock();
+        try {
+            return new Matches(pizzas.search(normalized, similarity), crusts.search(normalized, similarity));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the index if it has been built and may hold values without orders.
+     */
+    @Scheduled(initialDelayString = "${pizza.search.rebuild-interval-millis:60000}",
+            fixedDelayString = "${pizza.search.rebuild-interval-millis:60000}")
+    public void rebuildIfStale() {
+        build(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChange(OrderChangeEvent change) {
+        lock.writeLock().lock();
+        try {
+            if (changesDuringBuild != null)
+                changesDuringBuild.add(change);
+            if (built)
+                apply(change, pizzas, crusts);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(OrderChangeEvent change, ValueIndex pizzas, ValueIndex crusts) {
+        switch (change.getType()) {
+            case CREATED:
+                pizzas.add(change.getPizza());
+                crusts.add(change.getCrust());
+                break;
+            case UPDATED:
+                pizzas.add(change.getPizza());
+                crusts.add(change.getCrust());
+                stale = true;
+                break;
+            case DELETED:
+                // a delete by pizza (or crust) alone leaves no order with this value
+                if (change.getOrderId() == null && change.getCrust() == null)
+                    pizzas.remove(change.getPizza());
+                else if (change.getOrderId() == null && change.getPizza() == null)
+                    crusts.remove(change.getCrust());
+                else
+                    stale = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Builds a new index from the distinct values in the database and replaces the current one. The queries run
+     * without holding the lock of the index, so searches and changes are not blocked by them.
+     *
+     * @param rebuild true to rebuild a stale index, false to build an index that has not been built yet
+     */
+    private void build(boolean rebuild) {
+        synchronized (buildLock) {
+            lock.writeLock().lock();
+            try {
+                if (rebuild ? !(built && stale) : built)
+                    return;
+                stale = false;
+                changesDuringBuild = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ValueIndex newPizzas = new ValueIndex();
+            ValueIndex newCrusts = new ValueIndex();
+            try {
+                orderRepository.findDistinctPizzas().forEach(newPizzas::add);
+                orderRepository.findDistinctCrusts().forEach(newCrusts::add);
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    stale |= built;
+                    changesDuringBuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            lock.writeLock().lock();
+            try {
+                for (OrderChangeEvent change : changesDuringBuild) {
+                    apply(change, newPizzas, newCrusts);
+                }
+                pizzas = newPizzas;
+                crusts = newCrusts;
+                built = true;
+                changesDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return built;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The trigrams of the words of a normalized value, each word padded with two blanks in front and one behind.
+     */
+    private static Set<String> trigrams(String normalized) {
+        Set<String> trigrams = new HashSet<>();
+        for (String word : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty())
+                continue;
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                trigrams.add(padded.substring(i, i + 3));
+            }
+        }
+        return trigrams;
+    }
+
+    public static class Matches {
+
+        private final Collection<String> pizzas;
+        private final Collection<String> crusts;
+
+        private Matches(Collection<String> pizzas, Collection<String> crusts) {
+            this.pizzas = pizzas;
+            this.crusts = crusts;
+        }
+
+        public Collection<String> getPizzas() {
+            return pizzas;
+        }
+
+        public Collection<String> getCrusts() {
+            return crusts;
+        }
+
+        public boolean isEmpty() {
+            return pizzas.isEmpty() && crusts.isEmpty();
+        }
+    }
+
+    /**
+     * The values of one field: sorted by their normalized form (prefix search) and by trigram (similarity search).
+     * Values differing only in case share a normalized form.
+     */
+    private static class ValueIndex {
+
+        private final TreeMap<String, Set<String>> values = new TreeMap<>();
+        private final Map<String, Integer> trigramCounts = new HashMap<>();
+        private final Map<String, Set<String>> byTrigram = new HashMap<>();
+
+        void add(String value) {
+            if (value == null)
+                return;
+            String normalized = normalize(value);
+            Set<String> originals = values.get(normalized);
+            if (originals == null) {
+                originals = new HashSet<>(2);
+                values.put(normalized, originals);
+                Set<String> trigrams = trigrams(normalized);
+                trigramCounts.put(normalized, trigrams.size());
+                for (String trigram : trigrams) {
+                    byTrigram.computeIfAbsent(trigram, t -> new HashSet<>()).add(normalized);
+                }
+            }
+            originals.add(value);
+        }
+
+        void remove(String value) {
+            String normalized = normalize(value);
+            Set<String> originals = values.get(normalized);
+            if (originals == null || !originals.remove(value) || !originals.isEmpty())
+                return;
+            values.remove(normalized);
+            trigramCounts.remove(normalized);
+            for (String trigram : trigrams(normalized)) {
+                Set<String> normalizedValues = byTrigram.get(trigram);
+                normalizedValues.remove(normalized);
+                if (normalizedValues.isEmpty())
+                    byTrigram.remove(trigram);
+            }
+        }
+
+        List<String> search(String normalizedQuery, double similarity) {
+            if (normalizedQuery.isEmpty())
+                return Collections.emptyList();
+            Set<String> matches = new HashSet<>(values.subMap(normalizedQuery, normalizedQuery + Character.MAX_VALUE).keySet());
+            Set<String> queryTrigrams = trigrams(normalizedQuery);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (String normalized : byTrigram.getOrDefault(trigram, Collections.emptySet())) {
+                    shared.merge(normalized, 1, Integer::sum);
+                }
+            }
+            shared.forEach((normalized, count) -> {
+                if (count >= similarity * (queryTrigrams.size() + trigramCounts.get(normalized) - count))
+                    matches.add(normalized);
+            });
+            List<String> originals = new ArrayList<>();
+            for (String normalized : matches) {
+                originals.addAll(values.get(normalized));
+            }
+            return originals;
+        }
+    }
+}
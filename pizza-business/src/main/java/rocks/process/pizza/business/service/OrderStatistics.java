@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.service;
+
+import rocks.process.pizza.data.domain.OrderCount;
+
+import java.util.List;
+
+public class OrderStatistics {
+
+    private final List<OrderCount> byPizza;
+    private final List<OrderCount> byCrust;
+    private final List<OrderCount> byPizzaAndCrust;
+
+    public OrderStatistics(List<OrderCount> byPizza, List<OrderCount> byCrust, List<OrderCount> byPizzaAndCrust) {
+        this.byPizza = byPizza;
+        this.byCrust = byCrust;
+        this.byPizzaAndCrust = byPizzaAndCrust;
+    }
+
+    public List<OrderCount> getByPizza() {
+        return byPizza;
+    }
+
+    public List<OrderCount> getByCrust() {
+        return byCrust;
+    }
+
+    public List<OrderCount> getByPizzaAndCrust() {
+        return byPizzaAndCrust;
+    }
+}
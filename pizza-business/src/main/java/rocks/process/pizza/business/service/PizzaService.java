@@ -5,46 +5,359 @@
 
 package rocks.process.pizza.business.service;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import rocks.process.pizza.business.cache.OrderCache;
+import rocks.process.pizza.business.cache.OrderQueryCache;
+import rocks.process.pizza.business.event.OrderChangeEvent;
+import rocks.process.pizza.business.search.OrderSearchIndex;
 import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.domain.OrderCount;
 import rocks.process.pizza.data.repository.OrderRepository;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class PizzaService {
 
+    public static final int DEFAULT_PAGE_SIZE = 100;
+    public static final int MAX_PAGE_SIZE = 1000;
+
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OrderQueryCache orderQueryCache;
+
+    @Autowired
+    private OrderSearchIndex orderSearchIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Timed("pizza.service")
     public Order createOrderWithPizzaAndCrust(String pizza, String curst) {
-        Order order = new Order(pizza, curst);
-        return orderRepository.save(order);
+        Order order = orderRepository.save(new Order(pizza, curst));
+        orderCache.invalidate(order.getOrderId());
+        orderQueryCache.invalidate(pizza, curst);
+        publish(OrderChangeEvent.Type.CREATED, order.getOrderId(), pizza, curst);
+        return order;
+    }
+
+    /**
+     * Persists all orders in one transaction. The persistence context is flushed and cleared every
+     * {@code hibernate.jdbc.batch_size} orders, so the inserts go out as JDBC batches. The returned orders carry
+     * their generated ids and keep the order of the given list.
+     */
+    @Timed("pizza.service")
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        List<Long> orderIds = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            entityManager.persist(orders.get(i));
+            orderIds.add(orders.get(i).getOrderId());
+            publish(OrderChangeEvent.Type.CREATED, orders.get(i).getOrderId(), orders.get(i).getPizza(), orders.get(i).getCrust());
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        orderCache.invalidateAll(orderIds);
+        orderQueryCache.invalidate(orders);
+        return orders;
     }
 
+    @Timed("pizza.service")
+    @Transactional
     public void deleteOrderById(String orderId) {
-        orderRepository.deleteById(Long.parseLong(orderId));
+        if (orderRepository.deletePizzaOrdersByOrderIdIn(Collections.singletonList(Long.parseLong(orderId))) > 0)
+            publish(OrderChangeEvent.Type.DELETED, Long.parseLong(orderId), null, null);
+        orderCache.invalidate(Long.parseLong(orderId));
+        orderQueryCache.invalidateOrders(Collections.singletonList(Long.parseLong(orderId)));
     }
 
+    /**
+     * Deletes the given orders with set-based DELETE statements of at most {@link #MAX_PAGE_SIZE} ids each. Each
+     * statement is preceded by a query for the ids that exist, so that the change events report only these.
+     *
+     * @return the number of deleted orders
+     */
+    @Timed("pizza.service")
+    @Transactional
+    public int deleteOrdersByIds(List<String> orderIds) {
+        int deleted = 0;
+        List<Long> ids = new ArrayList<>(Math.min(orderIds.size(), MAX_PAGE_SIZE));
+        for (String orderId : orderIds) {
+            ids.add(Long.parseLong(orderId));
+            if (ids.size() == MAX_PAGE_SIZE) {
+                deleted += deleteOrdersByIdsIn(ids);
+                orderCache.invalidateAll(new ArrayList<>(ids));
+                orderQueryCache.invalidateOrders(ids);
+                ids.clear();
+            }
+        }
+        if (!ids.isEmpty()) {
+            deleted += deleteOrdersByIdsIn(ids);
+            orderCache.invalidateAll(ids);
+            orderQueryCache.invalidateOrders(ids);
+        }
+        return deleted;
+    }
+
+    private int deleteOrdersByIdsIn(Collection<Long> ids) {
+        List<Long> existingIds = orderRepository.findOrderIdsByOrderIdIn(ids);
+        if (existingIds.isEmpty())
+            return 0;
+        int deleted = orderRepository.deletePizzaOrdersByOrderIdIn(existingIds);
+        for (Long id : existingIds) {
+            publish(OrderChangeEvent.Type.DELETED, id, null, null);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes all orders matching the given pizza and/or crust with one DELETE statement. Nothing is deleted if
+     * neither is given. A single change event reports the filter.
+     *
+     * @return the number of deleted orders
+     */
+    @Timed("pizza.service")
+    @Transactional
+    public int deleteOrdersByPizzaOrCurst(String pizza, String curst) {
+        if (emptyToNull(pizza) == null && emptyToNull(curst) == null)
+            return 0;
+        int deleted;
+        if (emptyToNull(pizza) != null && emptyToNull(curst) != null)
+            deleted = orderRepository.deletePizzaOrdersByPizzaAndCrust(pizza, curst);
+        else if (emptyToNull(pizza) != null)
+            deleted = orderRepository.deletePizzaOrdersByPizza(pizza);
+        else
+            deleted = orderRepository.deletePizzaOrdersByCrust(curst);
+        if (deleted > 0)
+            publish(OrderChangeEvent.Type.DELETED, null, emptyToNull(pizza), emptyToNull(curst));
+        orderCache.invalidateAll();
+        orderQueryCache.invalidate(emptyToNull(pizza), emptyToNull(curst));
+        return deleted;
+    }
+
+    /**
+     * Filtered results are served from the {@link OrderQueryCache}; the returned list must not be modified.
+     */
+    @Timed("pizza.service")
     public List<Order> findOrdersByPizzaOrCurst(String pizza, String curst) {
-        if((pizza != null && !"".equals(pizza)) && (curst != null && !"".equals(curst)))
-            return orderRepository.findPizzaOrdersByPizzaAndCrust(pizza,curst);
-        else if (pizza != null && !"".equals(pizza))
-            return orderRepository.findPizzaOrdersByPizza(pizza);
-        else if (curst != null && !"".equals(curst))
-            return orderRepository.findPizzaOrdersByCrust(curst);
-        return orderRepository.findAll();
+        return orderQueryCache.get(emptyToNull(pizza), emptyToNull(curst), () -> {
+            if((pizza != null && !"".equals(pizza)) && (curst != null && !"".equals(curst)))
+                return orderRepository.findPizzaOrdersByPizzaAndCrust(pizza,curst);
+            else if (pizza != null && !"".equals(pizza))
+                return orderRepository.findPizzaOrdersByPizza(pizza);
+            else if (curst != null && !"".equals(curst))
+                return orderRepository.findPizzaOrdersByCrust(curst);
+            return orderRepository.findAll();
+        });
+    }
+
+    /**
+     * Returns at most {@code limit} orders with an orderId greater than {@code after} (keyset pagination).
+     * The last orderId of a page is the cursor for the next one.
+     */
+    @Timed("pizza.service")
+    public List<Order> findOrdersByPizzaOrCurst(String pizza, String curst, Long after, Integer limit) {
+        Long cursor = after == null ? 0L : after;
+        PageRequest page = PageRequest.of(0, pageSize(limit));
+        if (emptyToNull(pizza) != null && emptyToNull(curst) != null)
+            return orderRepository.findPizzaOrdersAfterByPizzaAndCrust(cursor, pizza, curst, page);
+        else if (emptyToNull(pizza) != null)
+            return orderRepository.findPizzaOrdersAfterByPizza(cursor, pizza, page);
+        else if (emptyToNull(curst) != null)
+            return orderRepository.findPizzaOrdersAfterByCrust(cursor, curst, page);
+        return orderRepository.findPizzaOrdersAfter(cursor, page);
     }
 
+    /**
+     * Returns at most {@code limit} orders with an orderId greater than {@code after} (keyset pagination) whose pizza
+     * or crust matches the query by prefix or similarity (see {@link OrderSearchIndex}).
+     */
+    @Timed("pizza.service")
+    public List<Order> searchOrders(String query, Long after, Integer limit) {
+        OrderSearchIndex.Matches matches = orderSearchIndex.search(query);
+        if (matches.isEmpty())
+            return Collections.emptyList();
+        return orderRepository.findPizzaOrdersAfterByPizzaInOrCrustIn(after == null ? 0L : after, orNoMatch(matches.getPizzas()),
+                orNoMatch(matches.getCrusts()), PageRequest.of(0, pageSize(limit)));
+    }
+
+    /**
+     * Counts with a query per filter combination: a catch-all predicate such as {@code (:pizza is null or o.pizza =
+     * :pizza)} keeps the database from using the index on pizza and crust.
+     */
+    @Timed("pizza.service")
+    public long countOrdersByPizzaOrCurst(String pizza, String curst) {
+        if (emptyToNull(pizza) != null && emptyToNull(curst) != null)
+            return orderRepository.countPizzaOrdersByPizzaAndCrust(pizza, curst);
+        else if (emptyToNull(pizza) != null)
+            return orderRepository.countPizzaOrdersByPizza(pizza);
+        else if (emptyToNull(curst) != null)
+            return orderRepository.countPizzaOrdersByCrust(curst);
+        return orderRepository.count();
+    }
+
+    /**
+     * The number of orders a page holds for the requested limit: {@link #DEFAULT_PAGE_SIZE} if none is given, at
+     * most {@link #MAX_PAGE_SIZE}.
+     */
+    public static int pageSize(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Hands the matching orders one by one to the consumer, detaching each of them afterwards so that the
+     * persistence context does not grow with the size of the result.
+     */
+    @Timed("pizza.service")
+    @Transactional(readOnly = true)
+    public void streamOrdersByPizzaOrCurst(String pizza, String curst, Consumer<Order> consumer) {
+        try (Stream<Order> orders = streamOrders(emptyToNull(pizza), emptyToNull(curst))) {
+            orders.forEach(order -> {
+                consumer.accept(order);
+                entityManager.detach(order);
+            });
+        }
+    }
+
+    /**
+     * Counts the orders by pizza, by crust and by pizza and crust. Only the latter is queried (GROUP BY pizza, crust);
+     * the other two are rolled up from its rows.
+     */
+    @Timed("pizza.service")
+    public OrderStatistics getOrderStatistics() {
+        List<OrderCount> byPizzaAndCrust = orderRepository.countPizzaOrdersGroupByPizzaAndCrust();
+        Map<String, Long> byPizza = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<String, Long> byCrust = new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+        for (OrderCount orderCount : byPizzaAndCrust) {
+            byPizza.merge(orderCount.getPizza(), orderCount.getCount(), Long::sum);
+            byCrust.merge(orderCount.getCrust(), orderCount.getCount(), Long::sum);
+        }
+        List<OrderCount> pizzaCounts = new ArrayList<>(byPizza.size());
+        byPizza.forEach((pizza, count) -> pizzaCounts.add(new OrderCount(pizza, null, count)));
+        List<OrderCount> crustCounts = new ArrayList<>(byCrust.size());
+        byCrust.forEach((crust, count) -> crustCounts.add(new OrderCount(null, crust, count)));
+        return new OrderStatistics(pizzaCounts, crustCounts, byPizzaAndCrust);
+    }
+
+    @Timed("pizza.service")
     public Order readOrderById(String orderId) {
-        return orderRepository.findById(Long.parseLong(orderId)).orElse(null);
+        return orderCache.get(Long.parseLong(orderId));
     }
 
+    /**
+     * Overwrites pizza and crust with a single UPDATE statement.
+     *
+     * @return the updated order, or null if there is no order with the given id
+     */
+    @Timed("pizza.service")
+    @Transactional
     public Order updateOrderByIdWithPizzaAndCrust(String orderId, String pizza, String curst) {
+        return updateOrderByIdWithPizzaAndCrust(orderId, null, pizza, curst);
+    }
+
+    /**
+     * Overwrites pizza and crust with a single UPDATE statement if the order still has the expected version; a null
+     * version updates unconditionally. The version of the returned order is only known (expected version + 1) in the
+     * former case.
+     *
+     * @return the updated order, or null if there is no order with the given id
+     * @throws ObjectOptimisticLockingFailureException if the order has been changed in the meantime
+     */
+    @Timed("pizza.service")
+    @Transactional
+    public Order updateOrderByIdWithPizzaAndCrust(String orderId, Long version, String pizza, String curst) {
         Order order = new Order(pizza, curst);
         order.setOrderId(Long.parseLong(orderId));
-        return orderRepository.save(order);
+        if (version == null) {
+            if (orderRepository.updatePizzaOrderById(order.getOrderId(), pizza, curst) == 0)
+                return null;
+        } else if (orderRepository.updatePizzaOrderByIdAndVersion(order.getOrderId(), version, pizza, curst) == 0) {
+            if (!orderRepository.existsById(order.getOrderId()))
+                return null;
+            throw new ObjectOptimisticLockingFailureException(Order.class, order.getOrderId());
+        } else {
+            order.setVersion(version + 1);
+        }
+        orderCache.invalidate(order.getOrderId());
+        orderQueryCache.invalidateOrders(Collections.singletonList(order.getOrderId()));
+        orderQueryCache.invalidate(pizza, curst);
+        publish(OrderChangeEvent.Type.UPDATED, order.getOrderId(), pizza, curst);
+        return order;
+    }
+
+    /**
+     * Changes only the given (non-null) fields with a single UPDATE statement. If neither is given, the order is left
+     * as it is (version included) and nothing is invalidated or published.
+     *
+     * @return false if there is no order with the given id
+     */
+    @Timed("pizza.service")
+    @Transactional
+    public boolean patchOrderById(String orderId, String pizza, String curst) {
+        if (pizza == null && curst == null)
+            return orderRepository.existsById(Long.parseLong(orderId));
+        if (orderRepository.patchPizzaOrderById(Long.parseLong(orderId), pizza, curst) == 0)
+            return false;
+        orderCache.invalidate(Long.parseLong(orderId));
+        orderQueryCache.invalidateOrders(Collections.singletonList(Long.parseLong(orderId)));
+        orderQueryCache.invalidate(pizza, curst);
+        publish(OrderChangeEvent.Type.UPDATED, Long.parseLong(orderId), pizza, curst);
+        return true;
+    }
+
+    /**
+     * The {@link rocks.process.pizza.business.event.OrderChangeFeed} receives the event after the commit.
+     */
+    private void publish(OrderChangeEvent.Type type, Long orderId, String pizza, String curst) {
+        eventPublisher.publishEvent(new OrderChangeEvent(type, orderId, pizza, curst));
+    }
+
+    private Stream<Order> streamOrders(String pizza, String curst) {
+        if (pizza != null && curst != null)
+            return orderRepository.streamPizzaOrdersByPizzaAndCrust(pizza, curst);
+        else if (pizza != null)
+            return orderRepository.streamPizzaOrdersByPizza(pizza);
+        else if (curst != null)
+            return orderRepository.streamPizzaOrdersByCrust(curst);
+        return orderRepository.streamPizzaOrders();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || "".equals(value) ? null : value;
+    }
+
+    private static Collection<String> orNoMatch(Collection<String> values) {
+        return values.isEmpty() ? Collections.singletonList(null) : values;
     }
 
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.storage;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+
+/**
+ * Checkpoints the H2 file database of the profile {@code durable}. Commits reach the file after at most
+ * {@code pizza.storage.write-delay-millis}; {@code CHECKPOINT SYNC} forces them to the device, so an operating system
+ * crash or power loss loses at most {@code pizza.storage.checkpoint-interval-millis} of orders.
+ */
+@Component
+@Profile("durable")
+public class StorageCheckpoint implements MeterBinder {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${pizza.storage.directory}")
+    private String directory;
+
+    private File databaseFile;
+    private Timer timer;
+
+    @PostConstruct
+    public void init() {
+        databaseFile = new File(directory, "pizza.mv.db");
+    }
+
+    @Scheduled(initialDelayString = "${pizza.storage.checkpoint-interval-millis}",
+            fixedDelayString = "${pizza.storage.checkpoint-interval-millis}")
+    public void checkpoint() {
+        if (timer == null)
+            jdbcTemplate.execute("CHECKPOINT SYNC");
+        else
+            timer.record(() -> jdbcTemplate.execute("CHECKPOINT SYNC"));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        timer = Timer.builder("pizza.storage.checkpoint").register(registry);
+        Gauge.builder("pizza.storage.file.size", databaseFile, File::length)
+                .baseUnit("bytes")
+                .register(registry);
+    }
+}
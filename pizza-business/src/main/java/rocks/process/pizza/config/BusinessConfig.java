@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Contributes the defaults of the business layer (see {@code pizza-business.properties}). They have the lowest
+ * precedence, so the {@code application.yml} of a consuming module can override each of them. The periodic tasks of
+ * the business layer (rebuild of the search index, storage checkpoints) run on the Spring scheduler.
+ */
+@Configuration
+@EnableScheduling
+@PropertySource("classpath:pizza-business.properties")
+public class BusinessConfig {
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * The profile {@code durable} keeps the orders in an H2 file database instead of the in-memory one (see
+ * {@code pizza-business-durable.properties}) and checkpoints it periodically (see
+ * {@link rocks.process.pizza.business.storage.StorageCheckpoint}).
+ */
+@Configuration
+@Profile("durable")
+@PropertySource("classpath:pizza-business-durable.properties")
+public class DurableStorageConfig {
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import io.micrometer.core.instrument.distribution.pause.NoPauseDetector;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import rocks.process.pizza.business.metrics.TimedMethodAspect;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Collections;
+
+/**
+ * Times the {@code @Timed} methods (see {@link TimedMethodAspect}) and binds the Hibernate statistics; the JVM, GC,
+ * Tomcat and connection pool metrics are bound by Spring Boot.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Without a pause detector, the timers with histograms do not compensate for coordinated omission, but recording
+     * a value no longer costs microseconds.
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> noPauseDetector() {
+        return meterRegistry -> meterRegistry.config().pauseDetector(new NoPauseDetector());
+    }
+
+    @Bean
+    public TimedMethodAspect timedMethodAspect(MeterRegistry meterRegistry) {
+        return new TimedMethodAspect(meterRegistry);
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory, "entityManagerFactory", Collections.emptyList());
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.config;
+
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in (pizza.threads.virtual=true, Java 21+): Tomcat hands every request to a new virtual thread instead of its
+ * worker pool, so the CXF endpoint and the business layer run on virtual threads. The number of concurrent database
+ * operations stays limited by the JDBC connection pool (spring.datasource.hikari.maximum-pool-size). Shared by both
+ * API services; Tomcat is an optional dependency of this module.
+ */
+@Configuration
+@ConditionalOnProperty(name = "pizza.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig {
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualThreadsCustomizer() throws ReflectiveOperationException {
+        Executor executor = newVirtualThreadPerTaskExecutor();
+        return factory -> factory.addConnectorCustomizers(connector ->
+                ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(executor));
+    }
+
+    private static Executor newVirtualThreadPerTaskExecutor() throws ReflectiveOperationException {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("pizza.threads.virtual requires Java 21 or later.", e);
+        }
+    }
+}
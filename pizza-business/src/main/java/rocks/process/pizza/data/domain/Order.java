@@ -5,20 +5,34 @@
 
 package rocks.process.pizza.data.domain;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 @Entity
-@Table(name = "PIZZA_ORDER")
+@Table(name = "PIZZA_ORDER", indexes = {
+        @Index(name = "IDX_PIZZA_ORDER_PIZZA_CRUST", columnList = "pizza, crust"),
+        @Index(name = "IDX_PIZZA_ORDER_CRUST", columnList = "crust")})
 public class Order {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "order_id")
+    @GenericGenerator(name = "order_id", strategy = "rocks.process.pizza.data.domain.OrderIdGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "PIZZA_ORDER_SEQ"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")})
     private Long orderId;
     private String pizza;
     private String crust;
+    @Version
+    private Long version;
 
     public Order() {
     }
@@ -51,4 +65,12 @@ public class Order {
     public void setCrust(String crust) {
         this.crust = crust;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
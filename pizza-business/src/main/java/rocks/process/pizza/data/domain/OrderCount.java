@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.data.domain;
+
+/**
+ * Number of orders per pizza and/or crust; a null pizza or crust means the count is not grouped by it.
+ */
+public class OrderCount {
+
+    private final String pizza;
+    private final String crust;
+    private final Long count;
+
+    public OrderCount(String pizza, String crust, Long count) {
+        this.pizza = pizza;
+        this.crust = crust;
+        this.count = count;
+    }
+
+    public String getPizza() {
+        return pizza;
+    }
+
+    public String getCrust() {
+        return crust;
+    }
+
+    public Long getCount() {
+        return count;
+    }
+}
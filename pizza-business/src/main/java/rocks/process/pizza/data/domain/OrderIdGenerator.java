@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.data.domain;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Properties;
+
+/**
+ * Sequence generator for {@link Order} ids that allocates blocks of ids with the pooled-lo optimizer, so the
+ * sequence is only hit once per {@code allocation_size} inserts.
+ *
+ * <p>The allocation size is read from the Hibernate setting {@value #ALLOCATION_SIZE_SETTING}
+ * ({@code spring.jpa.properties.pizza.order.id.allocation_size}). Every instance sharing a database reserves its
+ * blocks through the database sequence, so ids never collide; the sequence has to be created with an increment
+ * equal to the allocation size, and all instances have to use the same value.
+ */
+public class OrderIdGenerator extends SequenceStyleGenerator {
+
+    public static final String ALLOCATION_SIZE_SETTING = "pizza.order.id.allocation_size";
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class).getSettings().get(ALLOCATION_SIZE_SETTING);
+        if (allocationSize != null) {
+            params.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        }
+        super.configure(type, params, serviceRegistry);
+    }
+}
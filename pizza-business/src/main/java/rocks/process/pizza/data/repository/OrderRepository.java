@@ -5,16 +5,121 @@
 
 package rocks.process.pizza.data.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.data.domain.OrderCount;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findPizzaOrdersByPizza(@Param("pizza") String pizza);
     List<Order> findPizzaOrdersByCrust(@Param("crust") String crust);
     List<Order> findPizzaOrdersByPizzaAndCrust(@Param("pizza") String pizza, @Param("crust") String crust);
+
+    /**
+     * Keyset pages: orders with an orderId greater than the given cursor, unfiltered or filtered by pizza and/or crust,
+     * one query per filter combination so that each can use an index. The page size is taken from the given
+     * {@link Pageable}.
+     */
+    @Query("select o from Order o where o.orderId > :after order by o.orderId")
+    List<Order> findPizzaOrdersAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select o from Order o where o.pizza = :pizza and o.orderId > :after order by o.orderId")
+    List<Order> findPizzaOrdersAfterByPizza(@Param("after") Long after, @Param("pizza") String pizza, Pageable pageable);
+
+    @Query("select o from Order o where o.crust = :crust and o.orderId > :after order by o.orderId")
+    List<Order> findPizzaOrdersAfterByCrust(@Param("after") Long after, @Param("crust") String crust, Pageable pageable);
+
+    @Query("select o from Order o where o.pizza = :pizza and o.crust = :crust and o.orderId > :after order by o.orderId")
+    List<Order> findPizzaOrdersAfterByPizzaAndCrust(@Param("after") Long after, @Param("pizza") String pizza, @Param("crust") String crust, Pageable pageable);
+
+    /**
+     * Keyset page of the orders with one of the given pizzas or crusts. Neither collection may be empty; a collection
+     * holding only null matches nothing.
+     */
+    @Query("select o from Order o where o.orderId > :after and (o.pizza in :pizzas or o.crust in :crusts) order by o.orderId")
+    List<Order> findPizzaOrdersAfterByPizzaInOrCrustIn(@Param("after") Long after, @Param("pizzas") Collection<String> pizzas, @Param("crusts") Collection<String> crusts, Pageable pageable);
+
+    @Query("select distinct o.pizza from Order o where o.pizza is not null")
+    List<String> findDistinctPizzas();
+
+    @Query("select distinct o.crust from Order o where o.crust is not null")
+    List<String> findDistinctCrusts();
+
+    long countPizzaOrdersByPizza(@Param("pizza") String pizza);
+    long countPizzaOrdersByCrust(@Param("crust") String crust);
+    long countPizzaOrdersByPizzaAndCrust(@Param("pizza") String pizza, @Param("crust") String crust);
+
+    /**
+     * Stream the orders, unfiltered or filtered by pizza and/or crust, ordered by orderId; have to be consumed within
+     * a transaction.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o order by o.orderId")
+    Stream<Order> streamPizzaOrders();
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o where o.pizza = :pizza order by o.orderId")
+    Stream<Order> streamPizzaOrdersByPizza(@Param("pizza") String pizza);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o where o.crust = :crust order by o.orderId")
+    Stream<Order> streamPizzaOrdersByCrust(@Param("crust") String crust);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select o from Order o where o.pizza = :pizza and o.crust = :crust order by o.orderId")
+    Stream<Order> streamPizzaOrdersByPizzaAndCrust(@Param("pizza") String pizza, @Param("crust") String crust);
+
+    @Modifying
+    @Query("update versioned Order o set o.pizza = :pizza, o.crust = :crust where o.orderId = :orderId")
+    int updatePizzaOrderById(@Param("orderId") Long orderId, @Param("pizza") String pizza, @Param("crust") String crust);
+
+    /**
+     * Optimistic update: only matches while the order still has the given version.
+     */
+    @Modifying
+    @Query("update versioned Order o set o.pizza = :pizza, o.crust = :crust where o.orderId = :orderId and o.version = :version")
+    int updatePizzaOrderByIdAndVersion(@Param("orderId") Long orderId, @Param("version") Long version, @Param("pizza") String pizza, @Param("crust") String crust);
+
+    /**
+     * Partial update: a null pizza or crust keeps the stored value.
+     */
+    @Modifying
+    @Query("update versioned Order o set o.pizza = coalesce(:pizza, o.pizza), o.crust = coalesce(:crust, o.crust) where o.orderId = :orderId")
+    int patchPizzaOrderById(@Param("orderId") Long orderId, @Param("pizza") String pizza, @Param("crust") String crust);
+
+    @Query("select o.orderId from Order o where o.orderId in :orderIds")
+    List<Long> findOrderIdsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    @Modifying
+    @Query("delete from Order o where o.orderId in :orderIds")
+    int deletePizzaOrdersByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Set-based deletes by pizza and/or crust, one statement per filter combination so that each can use an index.
+     */
+    @Modifying
+    @Query("delete from Order o where o.pizza = :pizza")
+    int deletePizzaOrdersByPizza(@Param("pizza") String pizza);
+
+    @Modifying
+    @Query("delete from Order o where o.crust = :crust")
+    int deletePizzaOrdersByCrust(@Param("crust") String crust);
+
+    @Modifying
+    @Query("delete from Order o where o.pizza = :pizza and o.crust = :crust")
+    int deletePizzaOrdersByPizzaAndCrust(@Param("pizza") String pizza, @Param("crust") String crust);
+
+    @Query("select new rocks.process.pizza.data.domain.OrderCount(o.pizza, o.crust, count(o)) from Order o group by o.pizza, o.crust order by o.pizza, o.crust")
+    List<OrderCount> countPizzaOrdersGroupByPizzaAndCrust();
 }
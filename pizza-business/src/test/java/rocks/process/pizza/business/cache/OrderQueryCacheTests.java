@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import rocks.process.pizza.data.domain.Order;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The invalidation of {@link OrderQueryCache}. Outside of a transaction, invalidations apply right away.
+ */
+public class OrderQueryCacheTests {
+
+    private OrderQueryCache cache;
+    private Map<String, Integer> loads;
+
+    @Before
+    public void setUp() {
+        cache = new OrderQueryCache();
+        ReflectionTestUtils.setField(cache, "maximumOrders", 1000L);
+        ReflectionTestUtils.setField(cache, "expireAfterWriteSeconds", 60L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+        loads = new HashMap<>();
+        get("Margherita", null, 1L);
+        get("Funghi", null, 2L);
+        get("Margherita", "thin", 3L);
+        get(null, "thin", 4L);
+        get(null, "thick", 5L);
+        get("Margherita", "thick", 6L);
+    }
+
+    @Test
+    public void cachesFilteredResults() {
+        assertReloaded();
+    }
+
+    @Test
+    public void neverCachesUnfilteredResult() {
+        get(null, null, 7L);
+        get(null, null, 7L);
+        assertEquals(2, (int) loads.get("null/null"));
+    }
+
+    @Test
+    public void invalidatesFiltersMatchingPizzaAndCrust() {
+        cache.invalidate("Margherita", "thin");
+        assertReloaded("Margherita/null", "Margherita/thin", "null/thin");
+    }
+
+    @Test
+    public void invalidatesFiltersMatchingCrust() {
+        cache.invalidate(null, "thin");
+        assertReloaded("Margherita/null", "Funghi/null", "Margherita/thin", "null/thin");
+    }
+
+    @Test
+    public void invalidatesFiltersMatchingCreatedOrders() {
+        cache.invalidate(Arrays.asList(new Order("Funghi", "thick"), new Order("Funghi", "cheese")));
+        assertReloaded("Funghi/null", "null/thick");
+    }
+
+    @Test
+    public void invalidatesFiltersContainingOrders() {
+        cache.invalidateOrders(Arrays.asList(3L, 5L, 99L));
+        assertReloaded("Margherita/thin", "null/thick");
+    }
+
+    @Test
+    public void doesNotCacheResultLoadedDuringInvalidation() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        CompletableFuture<List<Order>> load = CompletableFuture.supplyAsync(() -> cache.get("Diavola", null, () -> {
+            loading.countDown();
+            await(invalidated);
+            return Collections.singletonList(order(8L, "Diavola", "thin"));
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        cache.invalidate("Diavola", "thin");
+        invalidated.countDown();
+        assertEquals(8L, (long) load.get(5, TimeUnit.SECONDS).get(0).getOrderId());
+
+        get("Diavola", null, 8L);
+        assertEquals(1, (int) loads.getOrDefault("Diavola/null", 0));
+        get("Diavola", null, 8L);
+        assertEquals(1, (int) loads.getOrDefault("Diavola/null", 0));
+    }
+
+    /**
+     * Reads every filter of {@link #setUp()} again and checks that exactly the given ones have been loaded again.
+     */
+    private void assertReloaded(String... filters) {
+        get("Margherita", null, 1L);
+        get("Funghi", null, 2L);
+        get("Margherita", "thin", 3L);
+        get(null, "thin", 4L);
+        get(null, "thick", 5L);
+        get("Margherita", "thick", 6L);
+        List<String> reloaded = Arrays.asList(filters);
+        loads.forEach((filter, count) -> assertEquals(filter, reloaded.contains(filter) ? 2 : 1, (int) count));
+    }
+
+    private List<Order> get(String pizza, String crust, long orderId) {
+        return cache.get(pizza, crust, () -> {
+            loads.merge(pizza + "/" + crust, 1, Integer::sum);
+            return Collections.singletonList(order(orderId, pizza, crust));
+        });
+    }
+
+    private static Order order(long orderId, String pizza, String crust) {
+        Order order = new Order(pizza, crust);
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
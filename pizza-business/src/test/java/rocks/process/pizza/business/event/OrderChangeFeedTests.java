@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class OrderChangeFeedTests {
+
+    private OrderChangeFeed feed;
+    private SimpleMeterRegistry registry;
+
+    @Before
+    public void setUp() {
+        feed = new OrderChangeFeed();
+        ReflectionTestUtils.setField(feed, "replaySize", 3);
+        registry = new SimpleMeterRegistry();
+        feed.bindTo(registry);
+    }
+
+    @Test
+    public void resumesAfterBufferedId() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(4);
+        List<OrderChangeEvent> resumed = subscribe(seen.get(1).getId());
+        assertEquals(ids(seen.subList(2, 4)), ids(resumed));
+        publish(1);
+        assertEquals(ids(seen.subList(2, 5)), ids(resumed));
+    }
+
+    @Test
+    public void resumesAfterLastIdWithoutReplay() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(2);
+        List<OrderChangeEvent> resumed = subscribe(seen.get(1).getId());
+        assertEquals(0, resumed.size());
+        publish(1);
+        assertEquals(ids(seen.subList(2, 3)), ids(resumed));
+    }
+
+    @Test
+    public void resumesAfterLastEvictedId() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(5);
+        List<OrderChangeEvent> resumed = subscribe(seen.get(1).getId());
+        assertEquals(ids(seen.subList(2, 5)), ids(resumed));
+    }
+
+    @Test
+    public void resetsIfNextIdIsEvicted() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(5);
+        List<OrderChangeEvent> resumed = subscribe(seen.get(0).getId());
+        assertEquals(1, resumed.size());
+        assertEquals(OrderChangeEvent.Type.RESET, resumed.get(0).getType());
+        assertEquals(seen.get(4).getId(), resumed.get(0).getId());
+        publish(1);
+        assertEquals(ids(seen.subList(5, 6)), ids(resumed.subList(1, 2)));
+    }
+
+    @Test
+    public void resetsOnIdOfEarlierRun() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(1);
+        assertReset(subscribe("0" + seen.get(0).getId()));
+    }
+
+    @Test
+    public void resetsOnMalformedOrFutureId() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(1);
+        String id = seen.get(0).getId();
+        String epoch = id.substring(0, id.lastIndexOf('-') + 1);
+        assertReset(subscribe(epoch + "x"));
+        assertReset(subscribe(epoch + "2"));
+        assertReset(subscribe("unknown"));
+    }
+
+    @Test
+    public void resetsWithoutReplayBuffer() {
+        ReflectionTestUtils.setField(feed, "replaySize", 0);
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(2);
+        assertReset(subscribe(seen.get(0).getId()));
+    }
+
+    @Test
+    public void removesSubscriberReturningFalse() {
+        List<OrderChangeEvent> seen = new ArrayList<>();
+        feed.subscribe(null, change -> seen.add(change) && seen.size() < 2);
+        assertEquals(1.0, subscribers(), 0);
+        publish(3);
+        assertEquals(2, seen.size());
+        assertEquals(0.0, subscribers(), 0);
+    }
+
+    @Test
+    public void removesSubscriberReturningFalseDuringReplay() {
+        List<OrderChangeEvent> seen = subscribe(null);
+        publish(3);
+        List<OrderChangeEvent> replayed = new ArrayList<>();
+        feed.subscribe(seen.get(0).getId(), change -> replayed.add(change) && false);
+        assertEquals(1, replayed.size());
+        publish(1);
+        assertEquals(1, replayed.size());
+        assertEquals(1.0, subscribers(), 0);
+    }
+
+    private List<OrderChangeEvent> subscribe(String lastEventId) {
+        List<OrderChangeEvent> changes = new ArrayList<>();
+        feed.subscribe(lastEventId, changes::add);
+        return changes;
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            feed.publish(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, (long) i, "Margherita", "thin"));
+        }
+    }
+
+    private double subscribers() {
+        return registry.get("pizza.changes.subscribers").gauge().value();
+    }
+
+    private static void assertReset(List<OrderChangeEvent> changes) {
+        assertEquals(1, changes.size());
+        assertEquals(OrderChangeEvent.Type.RESET, changes.get(0).getType());
+    }
+
+    private static List<String> ids(List<OrderChangeEvent> changes) {
+        List<String> ids = new ArrayList<>();
+        for (OrderChangeEvent change : changes) {
+            ids.add(change.getId());
+        }
+        return ids;
+    }
+}
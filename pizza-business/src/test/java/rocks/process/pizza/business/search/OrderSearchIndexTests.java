@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import rocks.process.pizza.business.event.OrderChangeEvent;
+import rocks.process.pizza.data.repository.OrderRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrderSearchIndexTests {
+
+    private OrderRepository orderRepository;
+    private OrderSearchIndex index;
+
+    @Before
+    public void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        when(orderRepository.findDistinctPizzas()).thenReturn(Arrays.asList("Margherita", "Funghi", "Quattro Formaggi"));
+        when(orderRepository.findDistinctCrusts()).thenReturn(Arrays.asList("thin", "Thin", "thick"));
+        index = new OrderSearchIndex();
+        ReflectionTestUtils.setField(index, "orderRepository", orderRepository);
+        ReflectionTestUtils.setField(index, "similarity", 0.3);
+    }
+
+    @Test
+    public void matchesShortQueriesByPrefix() {
+        assertEquals(set("Margherita"), pizzas("m"));
+        assertEquals(set("Funghi"), pizzas("fu"));
+        assertEquals(set("Quattro Formaggi"), pizzas("q"));
+        assertEquals(set("thin", "Thin", "thick"), crusts("t"));
+        assertEquals(set("thin", "Thin", "thick"), crusts("th"));
+        assertEquals(set(), pizzas("x"));
+        assertEquals(set(), pizzas("ar"));
+    }
+
+    @Test
+    public void matchesNothingForBlankQuery() {
+        assertTrue(index.search("").isEmpty());
+        assertTrue(index.search("  ").isEmpty());
+    }
+
+    @Test
+    public void foldsCase() {
+        ReflectionTestUtils.setField(index, "similarity", 0.9);
+        assertEquals(set("Margherita"), pizzas("MARG"));
+        assertEquals(set("Margherita"), pizzas(" Margherita "));
+        assertEquals(set("thin", "Thin"), crusts("THIN"));
+    }
+
+    @Test
+    public void matchesBySimilarity() {
+        assertEquals(set("Margherita"), pizzas("margarita"));
+        assertEquals(set("Quattro Formaggi"), pizzas("formagi"));
+        assertEquals(set("Funghi"), pizzas("fungi"));
+    }
+
+    @Test
+    public void matchesFromSimilarityThresholdOn() {
+        // "margherita" and "margarita" share 7 of their 14 trigrams
+        ReflectionTestUtils.setField(index, "similarity", 0.5);
+        assertEquals(set("Margherita"), pizzas("margarita"));
+        ReflectionTestUtils.setField(index, "similarity", 0.51);
+        assertEquals(set(), pizzas("margarita"));
+        assertEquals(set("Margherita"), pizzas("margh"));
+    }
+
+    @Test
+    public void removesAndReaddsValue() {
+        assertEquals(set("Funghi"), pizzas("funghi"));
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.DELETED, null, "Funghi", null));
+        assertEquals(set(), pizzas("funghi"));
+        assertEquals(set(), pizzas("fu"));
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, 1L, "Funghi", "thin"));
+        assertEquals(set("Funghi"), pizzas("funghi"));
+        assertEquals(set("Funghi"), pizzas("fu"));
+    }
+
+    @Test
+    public void keepsValueDifferingInCaseOnRemoval() {
+        ReflectionTestUtils.setField(index, "similarity", 0.9);
+        crusts("thin");
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.DELETED, null, null, "Thin"));
+        assertEquals(set("thin"), crusts("thin"));
+    }
+
+    @Test
+    public void addsCreatedValue() {
+        pizzas("m");
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, 1L, "Marinara", "thin"));
+        assertEquals(set("Margherita", "Marinara"), pizzas("mar"));
+        verify(orderRepository, times(1)).findDistinctPizzas();
+    }
+
+    @Test
+    public void rebuildsOnlyStaleIndex() {
+        index.rebuildIfStale();
+        verify(orderRepository, times(0)).findDistinctPizzas();
+        pizzas("m");
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, 1L, "Marinara", "thin"));
+        index.rebuildIfStale();
+        verify(orderRepository, times(1)).findDistinctPizzas();
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.DELETED, 1L, null, null));
+        index.rebuildIfStale();
+        verify(orderRepository, times(2)).findDistinctPizzas();
+        index.rebuildIfStale();
+        verify(orderRepository, times(2)).findDistinctPizzas();
+    }
+
+    @Test
+    public void rebuildDropsValuesWithoutOrders() {
+        assertEquals(set("Funghi"), pizzas("fu"));
+        when(orderRepository.findDistinctPizzas()).thenReturn(Arrays.asList("Margherita", "Quattro Formaggi", "Prosciutto"));
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.UPDATED, 1L, "Prosciutto", "thin"));
+        assertEquals(set("Funghi"), pizzas("fu"));
+        assertEquals(set("Prosciutto"), pizzas("pro"));
+        index.rebuildIfStale();
+        assertEquals(set(), pizzas("fu"));
+        assertEquals(set("Prosciutto"), pizzas("pro"));
+    }
+
+    @Test
+    public void searchesPreviousIndexAndKeepsChangesDuringRebuild() {
+        pizzas("m");
+        index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.DELETED, 1L, null, null));
+        List<Collection<String>> duringRebuild = new ArrayList<>();
+        when(orderRepository.findDistinctPizzas()).then(invocation -> {
+            duringRebuild.add(index.search("fu").getPizzas());
+            index.onOrderChange(new OrderChangeEvent(OrderChangeEvent.Type.CREATED, 2L, "Marinara", "thin"));
+            return Collections.singletonList("Margherita");
+        });
+        index.rebuildIfStale();
+        assertEquals(set("Funghi"), new HashSet<>(duringRebuild.get(0)));
+        assertEquals(set(), pizzas("fu"));
+        assertEquals(set("Margherita", "Marinara"), pizzas("mar"));
+    }
+
+    private Set<String> pizzas(String query) {
+        return new HashSet<>(index.search(query).getPizzas());
+    }
+
+    private Set<String> crusts(String query) {
+        return new HashSet<>(index.search(query).getCrusts());
+    }
+
+    private static Set<String> set(String... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.business.cache.OrderCache;
+import rocks.process.pizza.business.cache.OrderQueryCache;
+import rocks.process.pizza.data.domain.Order;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * The {@link PizzaService} reads served from its caches never return a state older than the last write. Every test
+ * uses its own pizza, so the caches hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "pizza.cache.order.negative-expire-after-write-seconds=1")
+public class PizzaServiceCacheTests {
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OrderQueryCache orderQueryCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void readsUpdatedOrder() {
+        String orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId().toString();
+        assertEquals("thin", pizzaService.readOrderById(orderId).getCrust());
+        pizzaService.updateOrderByIdWithPizzaAndCrust(orderId, pizza, "thick");
+        assertEquals("thick", pizzaService.readOrderById(orderId).getCrust());
+        pizzaService.patchOrderById(orderId, null, "cheese");
+        assertEquals("cheese", pizzaService.readOrderById(orderId).getCrust());
+    }
+
+    @Test
+    public void readsNoDeletedOrder() {
+        String orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId().toString();
+        assertNotNull(pizzaService.readOrderById(orderId));
+        pizzaService.deleteOrderById(orderId);
+        assertNull(pizzaService.readOrderById(orderId));
+
+        orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId().toString();
+        assertNotNull(pizzaService.readOrderById(orderId));
+        pizzaService.deleteOrdersByIds(Collections.singletonList(orderId));
+        assertNull(pizzaService.readOrderById(orderId));
+
+        orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId().toString();
+        assertNotNull(pizzaService.readOrderById(orderId));
+        pizzaService.deleteOrdersByPizzaOrCurst(pizza, null);
+        assertNull(pizzaService.readOrderById(orderId));
+    }
+
+    @Test
+    public void findsNoStaleOrders() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "thin").size());
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(pizza, "thick").size());
+
+        pizzaService.updateOrderByIdWithPizzaAndCrust(order.getOrderId().toString(), pizza, "thick");
+        assertEquals("thick", pizzaService.findOrdersByPizzaOrCurst(pizza, "").get(0).getCrust());
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(pizza, "thin").size());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "thick").size());
+
+        pizzaService.createOrders(Collections.singletonList(new Order(pizza, "thin")));
+        assertEquals(2, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "thin").size());
+
+        pizzaService.deleteOrderById(order.getOrderId().toString());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(pizza, "thick").size());
+
+        pizzaService.deleteOrdersByPizzaOrCurst(pizza, "");
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(pizza, "thin").size());
+    }
+
+    @Test
+    public void keepsFiltersNotAffectedByWrite() {
+        String otherPizza = UUID.randomUUID().toString();
+        Order order = pizzaService.createOrderWithPizzaAndCrust(otherPizza, "thin");
+        pizzaService.findOrdersByPizzaOrCurst(otherPizza, "");
+        pizzaService.findOrdersByPizzaOrCurst(pizza, "");
+        long hits = orderQueryCache.stats().hitCount();
+        long misses = orderQueryCache.stats().missCount();
+
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(otherPizza, "").size());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(hits + 1, orderQueryCache.stats().hitCount());
+        assertEquals(misses + 1, orderQueryCache.stats().missCount());
+
+        pizzaService.deleteOrderById(order.getOrderId().toString());
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        assertEquals(0, pizzaService.findOrdersByPizzaOrCurst(otherPizza, "").size());
+        assertEquals(hits + 2, orderQueryCache.stats().hitCount());
+        assertEquals(misses + 2, orderQueryCache.stats().missCount());
+    }
+
+    @Test
+    public void readsCreatedOrderRightAfterAbsentRead() {
+        assertCreatedOrderVisible(() -> pizzaService.createOrderWithPizzaAndCrust(pizza, "thick"));
+        assertCreatedOrderVisible(() -> pizzaService.createOrders(Collections.singletonList(new Order(pizza, "cheese"))).get(0));
+    }
+
+    @Test
+    public void expiresAbsentOrder() throws InterruptedException {
+        long orderId = -Math.abs(UUID.randomUUID().getLeastSignificantBits() % 1000000) - 1;
+        long loads = orderCache.stats().loadCount();
+        assertNull(pizzaService.readOrderById(Long.toString(orderId)));
+        // inserted behind the back of the service, so only the expiry makes it visible
+        jdbcTemplate.update("insert into PIZZA_ORDER (ORDER_ID, PIZZA, CRUST, VERSION) values (?, ?, ?, 0)", orderId, pizza, "thin");
+        assertNull(pizzaService.readOrderById(Long.toString(orderId)));
+        assertEquals(loads + 1, orderCache.stats().loadCount());
+        Thread.sleep(1100);
+        assertEquals(pizza, pizzaService.readOrderById(Long.toString(orderId)).getPizza());
+        assertEquals(loads + 2, orderCache.stats().loadCount());
+        jdbcTemplate.update("delete from PIZZA_ORDER where ORDER_ID = ?", orderId);
+    }
+
+    /**
+     * Reads the id the next order will get (absent, so cached negatively), creates the order and reads it again. The
+     * ids are allocated in blocks, so the next id is only known within a block; at a block boundary the test repeats.
+     */
+    private void assertCreatedOrderVisible(Supplier<Order> create) {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            String nextOrderId = Long.toString(pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId() + 1);
+            assertNull(pizzaService.readOrderById(nextOrderId));
+            Order order = create.get();
+            if (nextOrderId.equals(order.getOrderId().toString())) {
+                assertEquals(order.getCrust(), pizzaService.readOrderById(nextOrderId).getCrust());
+                return;
+            }
+        }
+        fail("no order got the id read before");
+    }
+}
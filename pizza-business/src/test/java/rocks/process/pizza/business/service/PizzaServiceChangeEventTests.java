@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.service;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.business.event.OrderChangeEvent;
+import rocks.process.pizza.business.event.OrderChangeFeed;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The change events the {@link PizzaService} publishes to the {@link OrderChangeFeed}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class PizzaServiceChangeEventTests {
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    @Autowired
+    private OrderChangeFeed orderChangeFeed;
+
+    private final List<OrderChangeEvent> changes = new CopyOnWriteArrayList<>();
+    private volatile boolean subscribed;
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+        subscribed = true;
+        orderChangeFeed.subscribe(null, change -> subscribed && changes.add(change));
+    }
+
+    @After
+    public void tearDown() {
+        subscribed = false;
+    }
+
+    @Test
+    public void deleteOrdersByIdsReportsOnlyExistingOrders() {
+        Long orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId();
+        changes.clear();
+        assertEquals(1, pizzaService.deleteOrdersByIds(Arrays.asList(orderId.toString(), "-1", "-2")));
+        assertEquals(1, changes.size());
+        assertEquals(OrderChangeEvent.Type.DELETED, changes.get(0).getType());
+        assertEquals(orderId, changes.get(0).getOrderId());
+    }
+
+    @Test
+    public void emptyPatchReportsNothing() {
+        Long orderId = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin").getOrderId();
+        changes.clear();
+        assertTrue(pizzaService.patchOrderById(orderId.toString(), null, null));
+        assertFalse(pizzaService.patchOrderById("-1", null, null));
+        assertEquals(0, changes.size());
+    }
+
+    @Test
+    public void deleteOrdersByIdsOfNoOrderReportsNothing() {
+        assertEquals(0, pizzaService.deleteOrdersByIds(Arrays.asList("-1", "-2")));
+        assertEquals(0, changes.size());
+    }
+}
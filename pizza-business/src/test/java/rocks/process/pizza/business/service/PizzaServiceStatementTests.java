@@ -0,0 +1,255 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.business.service;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.junit4.SpringRunner;
+import rocks.process.pizza.data.domain.Order;
+import rocks.process.pizza.sql.SqlStatementRecorder;
+import rocks.process.pizza.sql.SqlStatementRecorderConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static rocks.process.pizza.sql.SqlStatementBudget.budget;
+
+/**
+ * The SQL statements each {@link PizzaService} operation may execute. Every test uses its own pizza, so the caches
+ * hold nothing from other tests.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@Import(SqlStatementRecorderConfig.class)
+public class PizzaServiceStatementTests {
+
+    @Autowired
+    private PizzaService pizzaService;
+
+    private String pizza;
+
+    @Before
+    public void setUp() {
+        pizza = UUID.randomUUID().toString();
+    }
+
+    @Test
+    public void createOrderWithPizzaAndCrust() {
+        SqlStatementRecorder.reset();
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        budget().insert(1).other(1).verify();
+    }
+
+    @Test
+    public void createOrders() {
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            orders.add(new Order(pizza, "thin"));
+        }
+        SqlStatementRecorder.reset();
+        pizzaService.createOrders(orders);
+        // three JDBC batches of at most 50 inserts and one sequence call per 50 ids
+        budget().insert(3).other(4).verify();
+    }
+
+    @Test
+    public void deleteOrderById() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        pizzaService.deleteOrderById(order.getOrderId().toString());
+        budget().delete(1).verify();
+    }
+
+    @Test
+    public void deleteOrdersByIds() {
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < PizzaService.MAX_PAGE_SIZE + 1; i++) {
+            orderIds.add(Integer.toString(-i));
+        }
+        SqlStatementRecorder.reset();
+        pizzaService.deleteOrdersByIds(orderIds);
+        budget().select(2).verify();
+    }
+
+    @Test
+    public void deleteOrdersByPizzaOrCurst() {
+        String crust = UUID.randomUUID().toString();
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thick");
+        pizzaService.createOrderWithPizzaAndCrust(pizza, crust);
+        pizzaService.createOrderWithPizzaAndCrust(pizza, crust);
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.deleteOrdersByPizzaOrCurst(pizza, "thin"));
+        budget().delete(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.deleteOrdersByPizzaOrCurst("", crust));
+        budget().delete(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.deleteOrdersByPizzaOrCurst(pizza, ""));
+        budget().delete(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(0, pizzaService.deleteOrdersByPizzaOrCurst("", ""));
+        budget().verify();
+    }
+
+    @Test
+    public void findOrdersByPizzaOrCurst() {
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "").size());
+        budget().verify();
+    }
+
+    @Test
+    public void findOrdersByPizzaOrCurstPaged() {
+        String crust = UUID.randomUUID().toString();
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        pizzaService.createOrderWithPizzaAndCrust(pizza, crust);
+        pizzaService.createOrderWithPizzaAndCrust(UUID.randomUUID().toString(), crust);
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.findOrdersByPizzaOrCurst(pizza, "", null, 10).size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.findOrdersByPizzaOrCurst("", crust, null, 10).size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, crust, null, 10).size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.findOrdersByPizzaOrCurst(pizza, "", order.getOrderId(), 10).size());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.findOrdersByPizzaOrCurst("", "", order.getOrderId(), 2).size());
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void searchOrders() {
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        // the first search builds the index
+        pizzaService.searchOrders(pizza, null, 10);
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.searchOrders(pizza.substring(0, 8), null, 10).size());
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void countOrdersByPizzaOrCurst() {
+        String crust = UUID.randomUUID().toString();
+        pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        pizzaService.createOrderWithPizzaAndCrust(pizza, crust);
+        pizzaService.createOrderWithPizzaAndCrust(UUID.randomUUID().toString(), crust);
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.countOrdersByPizzaOrCurst(pizza, ""));
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(2, pizzaService.countOrdersByPizzaOrCurst("", crust));
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertEquals(1, pizzaService.countOrdersByPizzaOrCurst(pizza, crust));
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        assertTrue(pizzaService.countOrdersByPizzaOrCurst("", "") >= 3);
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void streamOrdersByPizzaOrCurst() {
+        for (int i = 0; i < 10; i++) {
+            pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        }
+        String crust = UUID.randomUUID().toString();
+        pizzaService.createOrderWithPizzaAndCrust(pizza, crust);
+        pizzaService.createOrderWithPizzaAndCrust(UUID.randomUUID().toString(), crust);
+        assertStreamed(11, pizza, "");
+        assertStreamed(2, "", crust);
+        assertStreamed(1, pizza, crust);
+        List<Order> orders = new ArrayList<>();
+        SqlStatementRecorder.reset();
+        pizzaService.streamOrdersByPizzaOrCurst("", "", orders::add);
+        assertTrue(orders.size() >= 12);
+        budget().select(1).verify();
+    }
+
+    private void assertStreamed(int count, String pizza, String crust) {
+        List<Order> orders = new ArrayList<>();
+        SqlStatementRecorder.reset();
+        pizzaService.streamOrdersByPizzaOrCurst(pizza, crust, orders::add);
+        assertEquals(count, orders.size());
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void getOrderStatistics() {
+        SqlStatementRecorder.reset();
+        pizzaService.getOrderStatistics();
+        budget().select(1).verify();
+    }
+
+    @Test
+    public void readOrderById() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        pizzaService.readOrderById(order.getOrderId().toString());
+        budget().select(1).verify();
+        SqlStatementRecorder.reset();
+        pizzaService.readOrderById(order.getOrderId().toString());
+        budget().verify();
+    }
+
+    @Test
+    public void updateOrderByIdWithPizzaAndCrust() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        pizzaService.updateOrderByIdWithPizzaAndCrust(order.getOrderId().toString(), pizza, "thick");
+        budget().update(1).verify();
+    }
+
+    @Test
+    public void updateOrderByIdWithPizzaAndCrustAndVersion() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        pizzaService.updateOrderByIdWithPizzaAndCrust(order.getOrderId().toString(), order.getVersion(), pizza, "thick");
+        budget().update(1).verify();
+    }
+
+    @Test
+    public void updateOrderByIdWithPizzaAndCrustAndStaleVersion() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        pizzaService.updateOrderByIdWithPizzaAndCrust(order.getOrderId().toString(), pizza, "thick");
+        SqlStatementRecorder.reset();
+        try {
+            pizzaService.updateOrderByIdWithPizzaAndCrust(order.getOrderId().toString(), order.getVersion(), pizza, "cheese");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // the failed update is followed by a select telling a changed from a missing order
+            budget().update(1).select(1).verify();
+            return;
+        }
+        throw new AssertionError("stale version accepted");
+    }
+
+    @Test
+    public void patchOrderById() {
+        Order order = pizzaService.createOrderWithPizzaAndCrust(pizza, "thin");
+        SqlStatementRecorder.reset();
+        pizzaService.patchOrderById(order.getOrderId().toString(), null, "thick");
+        budget().update(1).verify();
+        SqlStatementRecorder.reset();
+        assertTrue(pizzaService.patchOrderById(order.getOrderId().toString(), null, null));
+        budget().select(1).verify();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.sql;
+
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.fail;
+
+/**
+ * The maximum number of statements of each type an operation may execute, checked against the statements the
+ * {@link SqlStatementRecorder} recorded for the current thread:
+ *
+ * <pre>
+ * SqlStatementRecorder.reset();
+ * pizzaService.readOrderById(orderId);
+ * budget().select(1).verify();
+ * </pre>
+ *
+ * Types without a budget must not occur at all. {@code other} covers everything that is not a select, insert,
+ * update or delete (e.g. the sequence calls of the id generator).
+ */
+public class SqlStatementBudget {
+
+    private final Map<QueryType, Integer> budget = new EnumMap<>(QueryType.class);
+
+    private SqlStatementBudget() {
+    }
+
+    public static SqlStatementBudget budget() {
+        return new SqlStatementBudget();
+    }
+
+    public SqlStatementBudget select(int statements) {
+        budget.put(QueryType.SELECT, statements);
+        return this;
+    }
+
+    public SqlStatementBudget insert(int statements) {
+        budget.put(QueryType.INSERT, statements);
+        return this;
+    }
+
+    public SqlStatementBudget update(int statements) {
+        budget.put(QueryType.UPDATE, statements);
+        return this;
+    }
+
+    public SqlStatementBudget delete(int statements) {
+        budget.put(QueryType.DELETE, statements);
+        return this;
+    }
+
+    public SqlStatementBudget other(int statements) {
+        budget.put(QueryType.OTHER, statements);
+        return this;
+    }
+
+    /**
+     * Fails if the current thread has executed more statements of any type than budgeted.
+     */
+    public void verify() {
+        List<String> statements = SqlStatementRecorder.statements();
+        Map<QueryType, Integer> counts = new EnumMap<>(QueryType.class);
+        for (String statement : statements) {
+            counts.merge(QueryUtils.getQueryType(statement), 1, Integer::sum);
+        }
+        for (Map.Entry<QueryType, Integer> count : counts.entrySet()) {
+            int allowed = budget.getOrDefault(count.getKey(), 0);
+            if (count.getValue() > allowed)
+                fail(count.getValue() + " " + count.getKey() + " statements executed, " + allowed + " allowed:\n  "
+                        + String.join("\n  ", statements));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records the SQL statements executed by each thread. A JDBC batch is recorded once per statement, as it is sent in
+ * one round trip.
+ */
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    /**
+     * Forgets the statements recorded so far by the current thread.
+     */
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    /**
+     * The statements executed by the current thread since the last {@link #reset()}.
+     */
+    public static List<String> statements() {
+        return Collections.unmodifiableList(STATEMENTS.get());
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryInfo queryInfo : queryInfoList) {
+            STATEMENTS.get().add(queryInfo.getQuery());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the data source in a proxy that reports every statement to the {@link SqlStatementRecorder}. Import it into
+ * a test to check {@link SqlStatementBudget}s.
+ */
+@TestConfiguration
+public class SqlStatementRecorderConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlStatementRecorderPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ProxyDataSource))
+                    return ProxyDataSourceBuilder.create((DataSource) bean).listener(new SqlStatementRecorder()).build();
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.xml.ws.AsyncHandler;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Non-blocking variant of the {@link DefaultApi}: every call returns immediately and completes its future when the
+ * response arrives, so a few threads can keep many requests in flight. The number of concurrent connections is
+ * limited by the pizza-api.async properties.
+ */
+@Component
+public class AsyncOrderClient {
+
+    @Autowired
+    private DefaultApi defaultApi;
+
+    public CompletableFuture<OrderDTO> createOrder(OrderDTO orderDTO) {
+        return this.<CreateOrderResponse>invoke(handler -> defaultApi.createOrderAsync(orderDTO, handler))
+                .thenApply(CreateOrderResponse::getReturn);
+    }
+
+    public CompletableFuture<List<OrderDTO>> createOrders(List<OrderDTO> orderDTOs) {
+        return this.<CreateOrdersResponse>invoke(handler -> defaultApi.createOrdersAsync(orderDTOs, handler))
+                .thenApply(CreateOrdersResponse::getReturn);
+    }
+
+    public CompletableFuture<Void> deleteOrder(String orderId) {
+        return this.<DeleteOrderResponse>invoke(handler -> defaultApi.deleteOrderAsync(orderId, handler))
+                .thenApply(response -> null);
+    }
+
+    public CompletableFuture<Integer> deleteOrders(List<String> orderIds, String pizza, String curst) {
+        return this.<DeleteOrdersResponse>invoke(handler -> defaultApi.deleteOrdersAsync(orderIds, pizza, curst, handler))
+                .thenApply(DeleteOrdersResponse::getReturn);
+    }
+
+    public CompletableFuture<List<OrderDTO>> findOrders(String pizza, String curst) {
+        return this.<FindOrdersResponse>invoke(handler -> defaultApi.findOrdersAsync(pizza, curst, handler))
+                .thenApply(FindOrdersResponse::getReturn);
+    }
+
+    /**
+     * Completes with null if there is no order with the given id.
+     */
+    public CompletableFuture<OrderDTO> readOrder(String orderId) {
+        return this.<ReadOrderResponse>invoke(handler -> defaultApi.readOrderAsync(orderId, handler))
+                .thenApply(ReadOrderResponse::getReturn);
+    }
+
+    public CompletableFuture<OrderStatisticsDTO> readOrderStatistics() {
+        return this.<ReadOrderStatisticsResponse>invoke(handler -> defaultApi.readOrderStatisticsAsync(handler))
+                .thenApply(ReadOrderStatisticsResponse::getReturn);
+    }
+
+    public CompletableFuture<OrderDTO> updateOrder(OrderDTO orderDTO) {
+        return this.<UpdateOrderResponse>invoke(handler -> defaultApi.updateOrderAsync(orderDTO, handler))
+                .thenApply(UpdateOrderResponse::getReturn);
+    }
+
+    /**
+     * Bridges a JAX-WS callback invocation to a future. A SOAP fault or I/O error completes the future exceptionally.
+     */
+    private <T> CompletableFuture<T> invoke(Function<AsyncHandler<T>, ?> invocation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            invocation.apply(response -> {
+                try {
+                    future.complete(response.get());
+                } catch (ExecutionException e) {
+                    future.completeExceptionally(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -8,10 +8,15 @@ package rocks.process.pizza.api;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class DefaultAPIConsumer {
@@ -21,6 +26,15 @@ public class DefaultAPIConsumer {
     @Autowired
     private DefaultApi defaultApi;
 
+    @Autowired
+    private AsyncOrderClient asyncOrderClient;
+
+    @Value("${pizza-api.async.concurrent-demo:false}")
+    private boolean concurrentDemo;
+
+    @Value("${pizza-api.async.concurrent-orders:500}")
+    private int concurrentOrders;
+
     @PostConstruct
     private void init()
     {
@@ -43,5 +57,53 @@ public class DefaultAPIConsumer {
         defaultApi.deleteOrder(orderDTO.getOrderId());
         orders = defaultApi.findOrders("","");
         logger.info("Order deleted and list received with size: " + orders.size() + ".");
+
+        int pages = 0;
+        OrderPageDTO orderPage = defaultApi.findOrdersPage("", "", 100, null, true);
+        Long totalCount = orderPage.getTotalCount();
+        while (orderPage.getContinuationToken() != null) {
+            pages++;
+            orderPage = defaultApi.findOrdersPage("", "", 100, orderPage.getContinuationToken(), false);
+        }
+        logger.info("Order list of " + totalCount + " orders received in " + (pages + 1) + " pages.");
+    }
+
+    /**
+     * Creates, reads and deletes orders with all requests of each step in flight at the same time. Runs once the
+     * context is ready, as the response threads of the async conduit may have to look up beans. As this puts load on
+     * the service, it only runs if enabled with pizza-api.async.concurrent-demo.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void testConcurrentOrders()
+    {
+        if (!concurrentDemo) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<OrderDTO>> created = new ArrayList<>(concurrentOrders);
+        for (int i = 0; i < concurrentOrders; i++) {
+            OrderDTO orderDTO = new OrderDTO();
+            orderDTO.setPizza("SOAP-async");
+            orderDTO.setCrust("lean");
+            created.add(asyncOrderClient.createOrder(orderDTO));
+        }
+        CompletableFuture.allOf(created.toArray(new CompletableFuture[0])).join();
+        logger.info(concurrentOrders + " orders created concurrently in " + (System.currentTimeMillis() - start) + " ms.");
+
+        start = System.currentTimeMillis();
+        List<CompletableFuture<OrderDTO>> read = new ArrayList<>(concurrentOrders);
+        for (CompletableFuture<OrderDTO> order : created) {
+            read.add(asyncOrderClient.readOrder(order.join().getOrderId()));
+        }
+        CompletableFuture.allOf(read.toArray(new CompletableFuture[0])).join();
+        logger.info(concurrentOrders + " orders read concurrently in " + (System.currentTimeMillis() - start) + " ms.");
+
+        start = System.currentTimeMillis();
+        List<CompletableFuture<Void>> deleted = new ArrayList<>(concurrentOrders);
+        for (CompletableFuture<OrderDTO> order : created) {
+            deleted.add(asyncOrderClient.deleteOrder(order.join().getOrderId()));
+        }
+        CompletableFuture.allOf(deleted.toArray(new CompletableFuture[0])).join();
+        logger.info(concurrentOrders + " orders deleted concurrently in " + (System.currentTimeMillis() - start) + " ms.");
     }
 }
\ No newline at end of file
@@ -5,16 +5,90 @@
 
 package rocks.process.pizza.config;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.CXFBusFactory;
+import org.apache.cxf.endpoint.Client;
+import org.apache.cxf.feature.FastInfosetFeature;
+import org.apache.cxf.frontend.ClientProxy;
+import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
+import org.apache.cxf.transport.common.gzip.GZIPFeature;
+import org.apache.cxf.transport.common.gzip.GZIPOutInterceptor;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduitFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
 import rocks.process.pizza.api.DefaultApi;
 import rocks.process.pizza.api.impl.DefaultApiServiceImplService;
 
+import javax.annotation.PreDestroy;
+
 @Configuration
 public class WebServiceConfig {
 
+    private Bus bus;
+
+    @Value("${pizza-api.async.max-connections:5000}")
+    private int maxConnections;
+
+    @Value("${pizza-api.async.max-per-host-connections:1000}")
+    private int maxPerHostConnections;
+
+    @Value("${pizza-api.async.io-threads:2}")
+    private int ioThreads;
+
+    @Value("${pizza-api.encoding.fast-infoset:false}")
+    private boolean fastInfoset;
+
+    @Value("${pizza-api.encoding.gzip:false}")
+    private boolean gzip;
+
+    @Value("${pizza-api.encoding.gzip-threshold:1024}")
+    private int gzipThreshold;
+
+    /**
+     * The port gets a bus of its own, so the connection settings do not apply to the default bus of the application.
+     * It is created after the default bus, as the first bus created becomes the default one. The async methods
+     * (*Async) of the port are sent through the non-blocking CXF async HTTP conduit, which is configured by the bus
+     * properties set here; the synchronous methods keep using the default conduit. With fast-infoset, requests are
+     * sent as Fast Infoset; with gzip, responses are accepted gzipped and requests from the threshold on are
+     * compressed. The endpoint answers in kind.
+     */
     @Bean
+    @DependsOn(Bus.DEFAULT_BUS_ID)
     public DefaultApi defaultApi() {
-        return new DefaultApiServiceImplService().getDefaultApiServiceImplPort();
+        bus = new CXFBusFactory().createBus();
+        bus.setProperty(AsyncHTTPConduitFactory.MAX_CONNECTIONS, maxConnections);
+        bus.setProperty(AsyncHTTPConduitFactory.MAX_PER_HOST_CONNECTIONS, maxPerHostConnections);
+        bus.setProperty(AsyncHTTPConduitFactory.THREAD_COUNT, ioThreads);
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setBus(bus);
+        factory.setServiceClass(DefaultApi.class);
+        factory.setWsdlURL(DefaultApiServiceImplService.WSDL_LOCATION.toString());
+        factory.setServiceName(DefaultApiServiceImplService.SERVICE);
+        factory.setEndpointName(DefaultApiServiceImplService.DefaultApiServiceImplPort);
+        if (fastInfoset) {
+            FastInfosetFeature fastInfosetFeature = new FastInfosetFeature();
+            fastInfosetFeature.setForce(true);
+            factory.getFeatures().add(fastInfosetFeature);
+        }
+        if (gzip) {
+            GZIPFeature gzipFeature = new GZIPFeature();
+            gzipFeature.setThreshold(gzipThreshold);
+            factory.getFeatures().add(gzipFeature);
+        }
+        DefaultApi port = factory.create(DefaultApi.class);
+        if (gzip) {
+            // without this, the client only accepts gzip but never compresses its requests
+            Client client = ClientProxy.getClient(port);
+            client.getEndpoint().put(GZIPOutInterceptor.USE_GZIP_KEY, GZIPOutInterceptor.UseGzip.YES);
+        }
+        return port;
+    }
+
+    @PreDestroy
+    public void shutdownBus() {
+        if (bus != null)
+            bus.shutdown(true);
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import rocks.process.pizza.config.LoadGeneratorProperties;
+import rocks.process.pizza.load.LoadGenerator;
+import rocks.process.pizza.load.LoadReport;
+
+/**
+ * Runs a load test against the pizza API and returns its report. Concurrency, rate and duration (e.g. 30s) default
+ * to the load-generator properties.
+ */
+@RestController
+public class LoadGeneratorController {
+
+    @Autowired
+    private LoadGenerator loadGenerator;
+
+    @Autowired
+    private LoadGeneratorProperties properties;
+
+    @RequestMapping(value = "/load", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    public LoadReport load(@RequestParam(required = false) Integer concurrency,
+                           @RequestParam(required = false) Double rate,
+                           @RequestParam(required = false) String duration) throws InterruptedException {
+        return loadGenerator.run(concurrency == null ? properties.getConcurrency() : concurrency,
+                rate == null ? properties.getRate() : rate,
+                duration == null ? properties.getDuration() : DurationStyle.detectAndParse(duration));
+    }
+
+    @RequestMapping(value = "/load/percentiles", method = RequestMethod.GET, produces = MediaType.TEXT_PLAIN_VALUE)
+    public String loadPercentiles(@RequestParam(required = false) Integer concurrency,
+                                  @RequestParam(required = false) Double rate,
+                                  @RequestParam(required = false) String duration) throws InterruptedException {
+        return load(concurrency, rate, duration).toPercentileTables();
+    }
+
+    @ExceptionHandler(IllegalStateException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public String alreadyRunning(IllegalStateException e) {
+        return e.getMessage();
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String badRequest(IllegalArgumentException e) {
+        return e.getMessage();
+    }
+}
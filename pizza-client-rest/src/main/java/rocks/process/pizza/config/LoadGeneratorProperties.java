@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import rocks.process.pizza.load.Operation;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties("load-generator")
+public class LoadGeneratorProperties {
+
+    /**
+     * Number of worker threads, i.e. the maximum number of requests in flight.
+     */
+    private int concurrency = 8;
+
+    /**
+     * Target rate in requests per second (open model). With 0 every worker sends its next request as soon as the
+     * previous one has completed (closed model).
+     */
+    private double rate = 0;
+
+    private Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * How long the requests sent or queued within the duration may take to complete; the requests still queued after
+     * it are counted as errors.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Relative weight of each operation.
+     */
+    private Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    /**
+     * Number of created order ids kept for read, update and delete operations.
+     */
+    private int idPoolSize = 10000;
+
+    /**
+     * Pizza of the created orders; find operations filter by it.
+     */
+    private String pizza = "LOAD";
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getShutdownTimeout() {
+        return shutdownTimeout;
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    public Map<Operation, Integer> getMix() {
+        return mix;
+    }
+
+    public void setMix(Map<Operation, Integer> mix) {
+        this.mix = mix;
+    }
+
+    public int getIdPoolSize() {
+        return idPoolSize;
+    }
+
+    public void setIdPoolSize(int idPoolSize) {
+        this.idPoolSize = idPoolSize;
+    }
+
+    public String getPizza() {
+        return pizza;
+    }
+
+    public void setPizza(String pizza) {
+        this.pizza = pizza;
+    }
+}
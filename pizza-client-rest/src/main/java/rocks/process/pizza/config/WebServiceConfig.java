@@ -5,16 +5,90 @@
 
 package rocks.process.pizza.config;
 
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class WebServiceConfig {
 
+    @Value("${pizza-api.http.max-connections:200}")
+    private int maxConnections;
+
+    @Value("${pizza-api.http.max-connections-per-route:100}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${pizza-api.http.connect-timeout-millis:2000}")
+    private int connectTimeoutMillis;
+
+    @Value("${pizza-api.http.read-timeout-millis:10000}")
+    private int readTimeoutMillis;
+
+    @Value("${pizza-api.http.pool-timeout-millis:5000}")
+    private int poolTimeoutMillis;
+
+    @Value("${pizza-api.http.idle-timeout-millis:30000}")
+    private long idleTimeoutMillis;
+
+    @Value("${pizza-api.http.time-to-live-millis:300000}")
+    private long timeToLiveMillis;
+
+    @Value("${pizza-api.http.media-type:application/json}")
+    private String mediaType;
+
+    /**
+     * Keeps the connections to the API open for reuse (HTTP keep-alive). A request waits up to the pool timeout
+     * for a connection when the per-route or total limit is reached.
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager connectionManager() {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(timeToLiveMillis, TimeUnit.MILLISECONDS);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        return connectionManager;
+    }
+
+    /**
+     * Sends Accept-Encoding: gzip, deflate and decompresses the responses transparently.
+     */
+    @Bean
+    public CloseableHttpClient httpClient() {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeoutMillis)
+                        .setSocketTimeout(readTimeoutMillis)
+                        .setConnectionRequestTimeout(poolTimeoutMillis)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * Asks the API for the configured media type (JSON, CBOR or Smile); the converters for all three are registered
+     * by the RestTemplate itself. Request bodies are still sent as JSON.
+     */
     @Bean
     public RestTemplate restTemplate() {
-        return new RestTemplate();
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient()));
+        List<MediaType> accept = Collections.singletonList(MediaType.parseMediaType(mediaType));
+        restTemplate.getInterceptors().add((request, body, execution) -> {
+            request.getHeaders().setAccept(accept);
+            return execution.execute(request, body);
+        });
+        return restTemplate;
     }
 
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.load;
+
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import rocks.process.pizza.config.LoadGeneratorProperties;
+import rocks.process.pizza.model.OrderRequest;
+import rocks.process.pizza.model.OrderResponse;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends a weighted mix of order operations to the pizza API and records the latency of each operation in an
+ * HdrHistogram.
+ *
+ * <p>With a target rate (open model) the requests are scheduled at fixed intervals, independent of the response
+ * times, and handed to the workers; the latency of a request is measured from its intended start, so a stalled
+ * server is not hidden by requests that were never sent (coordinated omission). Without a target rate (closed
+ * model) each worker sends its next request as soon as the previous one has completed.
+ *
+ * <p>Requests still queued when the run is stopped after {@code load-generator.shutdown-timeout} are counted as
+ * errors of their operation, so an overloaded server shows up in the report instead of being hidden by requests that
+ * were never sent.
+ */
+@Component
+public class LoadGenerator {
+
+    private static Logger logger = LoggerFactory.getLogger(LoadGenerator.class);
+
+    @Value("${pizza-api.url}")
+    private String pizzaAPIURL;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private LoadGeneratorProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /**
+     * Runs a load test; only one can run at a time.
+     *
+     * @throws IllegalStateException if a load test is already running
+     */
+    public LoadReport run(int concurrency, double rate, Duration duration) throws InterruptedException {
+        if (!running.compareAndSet(false, true))
+            throw new IllegalStateException("A load test is already running.");
+        try {
+            return new Run(concurrency, rate, duration).execute();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private class Run {
+
+        private final int concurrency;
+        private final double rate;
+        private final Duration duration;
+        private final Operation[] operations;
+        private final int[] cumulativeWeights;
+        private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+        private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+        private final OrderIdPool orderIds = new OrderIdPool(properties.getIdPoolSize());
+
+        private Run(int concurrency, double rate, Duration duration) {
+            this.concurrency = concurrency;
+            this.rate = rate;
+            this.duration = duration;
+            operations = properties.getMix().keySet().toArray(new Operation[0]);
+            cumulativeWeights = new int[operations.length];
+            int weights = 0;
+            for (int i = 0; i < operations.length; i++) {
+                weights += properties.getMix().get(operations[i]);
+                cumulativeWeights[i] = weights;
+            }
+            if (weights <= 0)
+                throw new IllegalArgumentException("The operation mix must not be empty.");
+            for (Operation operation : Operation.values()) {
+                recorders.put(operation, new Recorder(3));
+                errors.put(operation, new LongAdder());
+            }
+        }
+
+        private LoadReport execute() throws InterruptedException {
+            logger.info("Starting load test: concurrency " + concurrency + ", rate " + rate + "/s, duration " + duration + ".");
+            ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+            long start = System.nanoTime();
+            long end = start + duration.toNanos();
+            if (rate > 0) {
+                long interval = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rate));
+                for (long intendedStart = start; intendedStart < end; intendedStart += interval) {
+                    long delay = intendedStart - System.nanoTime();
+                    if (delay > 0)
+                        LockSupport.parkNanos(delay);
+                    workers.execute(new Request(nextOperation(), intendedStart));
+                }
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    workers.execute(() -> {
+                        while (System.nanoTime() < end)
+                            send(nextOperation(), System.nanoTime());
+                    });
+                }
+            }
+            workers.shutdown();
+            if (!workers.awaitTermination(properties.getShutdownTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                List<Runnable> dropped = workers.shutdownNow();
+                for (Runnable request : dropped) {
+                    if (request instanceof Request)
+                        errors.get(((Request) request).operation).increment();
+                }
+                logger.warn("Load test stopped with " + dropped.size() + " requests not sent.");
+            }
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            Map<Operation, LoadReport.OperationReport> reports = new EnumMap<>(Operation.class);
+            recorders.forEach((operation, recorder) -> reports.put(operation,
+                    new LoadReport.OperationReport(recorder.getIntervalHistogram(), errors.get(operation).sum(), durationMillis)));
+            LoadReport report = new LoadReport(rate > 0 ? "open" : "closed", concurrency, rate, durationMillis, reports);
+            logger.info("Load test completed with throughput " + report.getThroughput() + "/s.");
+            return report;
+        }
+
+        private Operation nextOperation() {
+            int weight = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (weight < cumulativeWeights[i])
+                    return operations[i];
+            }
+            return operations[operations.length - 1];
+        }
+
+        /**
+         * A request of the open model, scheduled for the given start.
+         */
+        private class Request implements Runnable {
+
+            private final Operation operation;
+            private final long intendedStart;
+
+            private Request(Operation operation, long intendedStart) {
+                this.operation = operation;
+                this.intendedStart = intendedStart;
+            }
+
+            @Override
+            public void run() {
+                send(operation, intendedStart);
+            }
+        }
+
+        /**
+         * Operations on an existing order fall back to CREATE while the id pool is empty. Any exception counts as an
+         * error of the operation.
+         */
+        private void send(Operation operation, long intendedStart) {
+            String orderId = null;
+            if (operation == Operation.READ || operation == Operation.UPDATE)
+                orderId = orderIds.any();
+            else if (operation == Operation.DELETE)
+                orderId = orderIds.take();
+            if (orderId == null && operation != Operation.FIND)
+                operation = Operation.CREATE;
+            try {
+                switch (operation) {
+                    case CREATE:
+                        OrderResponse orderResponse = restTemplate.postForObject(pizzaAPIURL + "/orders", new HttpEntity<>(new OrderRequest(properties.getPizza(), "load")), OrderResponse.class);
+                        orderIds.add(orderResponse.getOrderId());
+                        break;
+                    case FIND:
+                        restTemplate.exchange(pizzaAPIURL + "/orders?pizza=" + properties.getPizza() + "&limit=100", HttpMethod.GET, null, new ParameterizedTypeReference<List<OrderResponse>>(){});
+                        break;
+                    case READ:
+                        restTemplate.getForObject(pizzaAPIURL + "/orders/" + orderId, OrderResponse.class);
+                        break;
+                    case UPDATE:
+                        restTemplate.put(pizzaAPIURL + "/orders/" + orderId, new HttpEntity<>(new OrderRequest(properties.getPizza(), "update")));
+                        break;
+                    case DELETE:
+                        restTemplate.delete(pizzaAPIURL + "/orders/" + orderId);
+                        break;
+                }
+                recorders.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart));
+            } catch (RuntimeException e) {
+                // besides failed requests (RestClientException) e.g. an unreadable response; the worker goes on
+                errors.get(operation).increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.load;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.HdrHistogram.Histogram;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Result of a load test. Latencies are in milliseconds; in the open model they are measured from the intended
+ * start of each request (coordinated omission corrected), so they include the time a request waited for a worker.
+ */
+@JsonPropertyOrder({"model", "concurrency", "targetRate", "durationMillis", "throughput", "operations"})
+public class LoadReport {
+
+    private final String model;
+    private final int concurrency;
+    private final double targetRate;
+    private final long durationMillis;
+    private final Map<Operation, OperationReport> operations;
+
+    LoadReport(String model, int concurrency, double targetRate, long durationMillis, Map<Operation, OperationReport> operations) {
+        this.model = model;
+        this.concurrency = concurrency;
+        this.targetRate = targetRate;
+        this.durationMillis = durationMillis;
+        this.operations = operations;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public double getThroughput() {
+        return operations.values().stream().mapToLong(OperationReport::getCount).sum() * 1000.0 / durationMillis;
+    }
+
+    public Map<Operation, OperationReport> getOperations() {
+        return operations;
+    }
+
+    /**
+     * The HdrHistogram percentile distribution of each operation, in milliseconds.
+     */
+    public String toPercentileTables() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(out, true);
+        printStream.printf("%s model, concurrency %d, target rate %.1f/s, duration %d ms, throughput %.1f/s%n",
+                model, concurrency, targetRate, durationMillis, getThroughput());
+        operations.forEach((operation, report) -> {
+            printStream.printf("%n%s: %d ok, %d errors%n", operation, report.getCount(), report.getErrors());
+            if (report.getCount() > 0)
+                report.histogram.outputPercentileDistribution(printStream, OperationReport.MICROS_PER_MILLI);
+        });
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @JsonPropertyOrder({"count", "errors", "throughput", "min", "mean", "p50", "p90", "p99", "p999", "max"})
+    public static class OperationReport {
+
+        private static final double MICROS_PER_MILLI = 1000.0;
+
+        private final Histogram histogram;
+        private final long errors;
+        private final long durationMillis;
+
+        OperationReport(Histogram histogram, long errors, long durationMillis) {
+            this.histogram = histogram;
+            this.errors = errors;
+            this.durationMillis = durationMillis;
+        }
+
+        public long getCount() {
+            return histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return getCount() * 1000.0 / durationMillis;
+        }
+
+        public double getMin() {
+            return histogram.getMinValue() / MICROS_PER_MILLI;
+        }
+
+        public double getMean() {
+            return histogram.getMean() / MICROS_PER_MILLI;
+        }
+
+        public double getP50() {
+            return percentile(50.0);
+        }
+
+        public double getP90() {
+            return percentile(90.0);
+        }
+
+        public double getP99() {
+            return percentile(99.0);
+        }
+
+        public double getP999() {
+            return percentile(99.9);
+        }
+
+        public double getMax() {
+            return histogram.getMaxValue() / MICROS_PER_MILLI;
+        }
+
+        @JsonIgnore
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        private double percentile(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+        }
+    }
+}
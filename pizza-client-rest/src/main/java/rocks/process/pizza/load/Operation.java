@@ -0,0 +1,10 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.load;
+
+public enum Operation {
+    CREATE, FIND, READ, UPDATE, DELETE
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.load;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded pool of the most recently created order ids, shared by the workers. When full, the oldest ids are
+ * overwritten.
+ */
+final class OrderIdPool {
+
+    private static final int PROBES = 8;
+
+    private final AtomicReferenceArray<String> orderIds;
+    private final AtomicLong added = new AtomicLong();
+
+    OrderIdPool(int size) {
+        orderIds = new AtomicReferenceArray<>(size);
+    }
+
+    void add(String orderId) {
+        orderIds.set((int) (added.getAndIncrement() % orderIds.length()), orderId);
+    }
+
+    /**
+     * @return a random id of the pool, or null if none was found
+     */
+    String any() {
+        for (int i = 0; i < PROBES; i++) {
+            String orderId = orderIds.get(randomSlot());
+            if (orderId != null)
+                return orderId;
+        }
+        return null;
+    }
+
+    /**
+     * Removes and returns a random id of the pool, or null if none was found.
+     */
+    String take() {
+        for (int i = 0; i < PROBES; i++) {
+            String orderId = orderIds.getAndSet(randomSlot(), null);
+            if (orderId != null)
+                return orderId;
+        }
+        return null;
+    }
+
+    private int randomSlot() {
+        long filled = Math.min(added.get(), orderIds.length());
+        return filled == 0 ? 0 : ThreadLocalRandom.current().nextInt((int) filled);
+    }
+}
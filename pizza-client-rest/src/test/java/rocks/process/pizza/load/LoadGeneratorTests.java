@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018. University of Applied Sciences and Arts Northwestern Switzerland FHNW.
+ * All rights reserved.
+ */
+
+package rocks.process.pizza.load;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import rocks.process.pizza.config.LoadGeneratorProperties;
+
+import java.time.Duration;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The accounting of the {@link LoadGenerator} against a stubbed {@link RestTemplate}.
+ */
+public class LoadGeneratorTests {
+
+    private LoadGenerator loadGenerator;
+    private LoadGeneratorProperties properties;
+
+    @Before
+    public void setUp() {
+        properties = new LoadGeneratorProperties();
+        properties.setMix(Collections.singletonMap(Operation.FIND, 1));
+        loadGenerator = new LoadGenerator();
+        ReflectionTestUtils.setField(loadGenerator, "pizzaAPIURL", "http://localhost/api");
+        ReflectionTestUtils.setField(loadGenerator, "properties", properties);
+    }
+
+    @Test
+    public void countsRequestsNotSentAsErrors() throws InterruptedException {
+        ReflectionTestUtils.setField(loadGenerator, "restTemplate", mock(RestTemplate.class, invocation -> {
+            Thread.sleep(2000);
+            return null;
+        }));
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        LoadReport report = loadGenerator.run(1, 1000, Duration.ofMillis(200));
+        LoadReport.OperationReport find = report.getOperations().get(Operation.FIND);
+        // 200 requests scheduled: the first one is still running, the others are still queued
+        assertEquals(0, find.getCount());
+        assertEquals(199, find.getErrors());
+    }
+
+    @Test
+    public void keepsWorkerRunningAfterUnexpectedException() throws InterruptedException {
+        ReflectionTestUtils.setField(loadGenerator, "restTemplate", mock(RestTemplate.class, invocation -> {
+            if (invocation.getMethod().getName().equals("toString"))
+                return "RestTemplate";
+            throw new IllegalStateException("mapping failed");
+        }));
+        LoadReport report = loadGenerator.run(1, 0, Duration.ofMillis(100));
+        LoadReport.OperationReport find = report.getOperations().get(Operation.FIND);
+        assertEquals(0, find.getCount());
+        assertTrue(find.getErrors() > 1);
+    }
+
+    @Test
+    public void countsCreateWithoutResponseAsError() throws InterruptedException {
+        properties.setMix(Collections.singletonMap(Operation.READ, 1));
+        ReflectionTestUtils.setField(loadGenerator, "restTemplate", new RestTemplate() {
+            @Override
+            public <T> T postForObject(String url, Object request, Class<T> responseType, Object... uriVariables) {
+                return null;
+            }
+        });
+        LoadReport report = loadGenerator.run(1, 0, Duration.ofMillis(100));
+        // reads fall back to creates while there is no order id; the stub returns no order
+        assertEquals(0, report.getOperations().get(Operation.CREATE).getCount());
+        assertTrue(report.getOperations().get(Operation.CREATE).getErrors() > 1);
+    }
+}